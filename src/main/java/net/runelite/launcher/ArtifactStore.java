@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A content-addressable store of artifacts keyed by their sha-256, shared by every client type. Each
+ * type's repository directory is a view into the store made of hardlinks, or copies on file systems
+ * without hardlinks. Each type records the hashes it references, and objects which no type references
+ * are garbage collected.
+ */
+@Slf4j
+class ArtifactStore
+{
+	private static final Type REFS_TYPE = new TypeToken<Set<String>>()
+	{
+	}.getType();
+
+	private static final long MB = 1024 * 1024;
+	// headroom for temp files and the hash index
+	private static final long FREE_SPACE_MARGIN = 32 * MB;
+	// newer objects and temp files may belong to a sync in another launcher process which hasn't written its refs yet
+	private static final long GC_GRACE_PERIOD = TimeUnit.HOURS.toMillis(1);
+
+	private final File objectsDir;
+	private final File refsDir;
+	private final File chunkIndexFile;
+	@Getter
+	private final HashIndex hashIndex;
+	private ChunkIndex chunkIndex;
+
+	private final ConcurrentMap<String, CompletableFuture<File>> pending = new ConcurrentHashMap<>();
+
+	ArtifactStore(File root, HashIndex hashIndex)
+	{
+		this.objectsDir = new File(root, "objects");
+		this.refsDir = new File(root, "refs");
+		this.chunkIndexFile = new File(root, "chunks.json");
+		this.hashIndex = hashIndex;
+	}
+
+	/**
+	 * Get the path of an object in the store. The object may not exist.
+	 */
+	File file(String hash)
+	{
+		return new File(new File(objectsDir, hash.substring(0, 2)), hash);
+	}
+
+	/**
+	 * Check if the store has a valid copy of an object. Corrupt objects are removed.
+	 */
+	boolean contains(String hash)
+	{
+		File file = file(hash);
+		try
+		{
+			if (hash.equals(hashIndex.hash(file)))
+			{
+				return true;
+			}
+
+			log.warn("Removing corrupt object {}", file);
+			file.delete();
+			return false;
+		}
+		catch (IOException ex)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Get the hashes of the objects in the store
+	 */
+	List<String> objects()
+	{
+		List<String> hashes = new ArrayList<>();
+		File[] dirs = objectsDir.listFiles(File::isDirectory);
+		if (dirs != null)
+		{
+			for (File dir : dirs)
+			{
+				String[] names = dir.list();
+				if (names != null)
+				{
+					Collections.addAll(hashes, names);
+				}
+			}
+		}
+		return hashes;
+	}
+
+	/**
+	 * Get the chunk index of the store, loading it the first time it is needed
+	 */
+	synchronized ChunkIndex getChunkIndex()
+	{
+		if (chunkIndex == null)
+		{
+			chunkIndex = ChunkIndex.load(chunkIndexFile);
+		}
+		return chunkIndex;
+	}
+
+	/**
+	 * Create a temporary file on the same file system as the objects, for writing an object before it
+	 * is moved into place
+	 */
+	File createTempFile() throws IOException
+	{
+		mkdirs(objectsDir);
+		return File.createTempFile("object", ".tmp", objectsDir);
+	}
+
+	/**
+	 * Check there is enough free space to add objects of the given total size to the store
+	 */
+	void checkSpace(long required) throws IOException
+	{
+		mkdirs(objectsDir);
+		long usable = objectsDir.getUsableSpace();
+		// 0 means the space couldn't be determined
+		if (usable > 0 && usable < required + FREE_SPACE_MARGIN)
+		{
+			throw new IOException(String.format("Not enough free disk space in %s: %d MB is required but only %d MB is available",
+				objectsDir, (required + FREE_SPACE_MARGIN) / MB, usable / MB));
+		}
+	}
+
+	/**
+	 * Move a verified file into the store
+	 */
+	void add(File file, String hash) throws IOException
+	{
+		File object = file(hash);
+		mkdirs(object.getParentFile());
+		move(file.toPath(), object.toPath());
+		hashIndex.put(object, hash);
+	}
+
+	/**
+	 * Import a verified file which is already in a repository directory into the store, leaving the file
+	 * where it is
+	 */
+	void adopt(File file, String hash) throws IOException
+	{
+		File object = file(hash);
+		mkdirs(object.getParentFile());
+		File tmp = createTempFile();
+		// a link can't be created over the empty temp file
+		Files.delete(tmp.toPath());
+		link(file.toPath(), tmp.toPath());
+		move(tmp.toPath(), object.toPath());
+		hashIndex.put(object, hash);
+	}
+
+	/**
+	 * Fetch an object unless the same hash is already being fetched, in which case the fetch in progress is
+	 * shared. This makes each hash download once even when several client types are synced at the same time.
+	 */
+	CompletableFuture<File> fetchOnce(String hash, Supplier<CompletableFuture<File>> fetch)
+	{
+		CompletableFuture<File> future = new CompletableFuture<>();
+		CompletableFuture<File> existing = pending.putIfAbsent(hash, future);
+		if (existing != null)
+		{
+			log.debug("Waiting on fetch of {} already in progress", hash);
+			return existing;
+		}
+
+		CompletableFuture<File> fetched;
+		try
+		{
+			fetched = fetch.get();
+		}
+		catch (RuntimeException ex)
+		{
+			// the waiters would otherwise hang on a fetch which never started
+			pending.remove(hash);
+			future.completeExceptionally(ex);
+			return future;
+		}
+
+		fetched.whenComplete((file, ex) ->
+		{
+			pending.remove(hash);
+			if (ex != null)
+			{
+				future.completeExceptionally(ex);
+			}
+			else
+			{
+				future.complete(file);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Make a file in a repository directory refer to an object in the store
+	 */
+	void checkout(String hash, File dest) throws IOException
+	{
+		Path object = file(hash).toPath();
+		Path target = dest.toPath();
+		if (Files.exists(target) && Files.isSameFile(object, target))
+		{
+			return;
+		}
+
+		mkdirs(dest.getParentFile());
+		Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+		Files.deleteIfExists(tmp);
+		link(object, tmp);
+		move(tmp, target);
+		hashIndex.put(dest, hash);
+	}
+
+	/**
+	 * Record the objects referenced by a client type, and remove the objects no type references anymore
+	 */
+	synchronized void retain(String type, Collection<String> hashes)
+	{
+		try
+		{
+			mkdirs(refsDir);
+			File tmp = File.createTempFile(type, ".tmp", refsDir);
+			try (Writer out = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))
+			{
+				new Gson().toJson(new HashSet<>(hashes), REFS_TYPE, out);
+			}
+			move(tmp.toPath(), new File(refsDir, type + ".json").toPath());
+		}
+		catch (IOException ex)
+		{
+			// without up to date refs it isn't safe to collect anything
+			log.warn("unable to write refs for {}", type, ex);
+			return;
+		}
+
+		gc();
+	}
+
+	private void gc()
+	{
+		File[] refFiles = refsDir.listFiles((dir, name) -> name.endsWith(".json"));
+		if (refFiles == null)
+		{
+			return;
+		}
+
+		Set<String> live = new HashSet<>(pending.keySet());
+		for (File refFile : refFiles)
+		{
+			try (Reader in = new InputStreamReader(new FileInputStream(refFile), StandardCharsets.UTF_8))
+			{
+				Set<String> refs = new Gson().fromJson(in, REFS_TYPE);
+				if (refs != null)
+				{
+					live.addAll(refs);
+				}
+			}
+			catch (FileNotFoundException ex)
+			{
+				// removed concurrently
+			}
+			catch (IOException | JsonParseException ex)
+			{
+				log.warn("unable to read refs {}, skipping garbage collection", refFile, ex);
+				return;
+			}
+		}
+
+		File[] dirs = objectsDir.listFiles(File::isDirectory);
+		if (dirs == null)
+		{
+			return;
+		}
+
+		long cutoff = System.currentTimeMillis() - GC_GRACE_PERIOD;
+
+		for (File dir : dirs)
+		{
+			File[] objects = dir.listFiles();
+			if (objects == null)
+			{
+				continue;
+			}
+
+			for (File object : objects)
+			{
+				if (!live.contains(object.getName()) && object.lastModified() < cutoff)
+				{
+					// repository directories which link to the object keep their own copy of the data
+					if (object.delete())
+					{
+						log.debug("Deleted unreferenced object {}", object);
+					}
+					else
+					{
+						log.warn("Unable to delete unreferenced object {}", object);
+					}
+				}
+			}
+		}
+
+		// leftover temp files from interrupted writes
+		File[] tmpFiles = objectsDir.listFiles((dir, name) -> name.endsWith(".tmp"));
+		if (tmpFiles != null)
+		{
+			for (File tmp : tmpFiles)
+			{
+				if (tmp.lastModified() < cutoff)
+				{
+					tmp.delete();
+				}
+			}
+		}
+	}
+
+	private static void link(Path existing, Path link) throws IOException
+	{
+		try
+		{
+			Files.createLink(link, existing);
+		}
+		catch (UnsupportedOperationException | IOException ex)
+		{
+			log.debug("unable to hardlink {}, copying", existing, ex);
+			Files.copy(existing, link, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void move(Path from, Path to) throws IOException
+	{
+		try
+		{
+			Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex)
+		{
+			log.debug("atomic move not supported", ex);
+			Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void mkdirs(File dir) throws IOException
+	{
+		if (!dir.exists() && !dir.mkdirs() && !dir.isDirectory())
+		{
+			throw new IOException("unable to create directory " + dir);
+		}
+	}
+}
@@ -0,0 +1,657 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingOutputStream;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.launcher.beans.Artifact;
+import net.runelite.launcher.beans.Chunk;
+import net.runelite.launcher.beans.Diff;
+
+/**
+ * Synchronizes a set of artifacts into a repository directory. Each artifact is run through its own
+ * check, fetch and verify pipeline, and several artifacts are processed at once. Hashing and patching
+ * run on the disk pool, downloads run on the network pool, so one artifact can be downloading while
+ * another is being hashed or patched. Artifacts are fetched into the {@link ArtifactStore} and checked
+ * out into the repository directory once verified.
+ */
+@Slf4j
+class ArtifactSync
+{
+	private static final int NETWORK_THREADS = 4;
+	// checks are bound by hashing, so use every core
+	private static final int DISK_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+	// recompressing patched archives is cpu bound
+	private static final int DEFLATE_THREADS = Runtime.getRuntime().availableProcessors();
+
+	private static final int PIPE_SIZE = 256 * 1024;
+
+	private static final double START_PROGRESS = .15;
+	private static final double END_PROGRESS = .80;
+	// the share of an artifact which must already be in the store to rebuild it from chunks
+	private static final double MIN_LOCAL_CHUNKS = .25;
+
+	private final File location;
+	private final File previous;
+	private final boolean nodiff;
+	private final ArtifactStore store;
+	private final HashIndex hashIndex;
+	private final DiffCostModel costModel = DiffCostModel.shared();
+
+
+	private ExecutorService diskExecutor;
+	private ExecutorService networkExecutor;
+	private ExecutorService patchExecutor;
+	private ExecutorService deflateExecutor;
+	// the chunk index brought up to date with the store, once per sync
+	private CompletableFuture<Void> chunkIndexUpdate;
+
+	/**
+	 * @param location the directory to check the artifacts out into
+	 * @param previous the directory of the previous generation, used as a source of diff bases
+	 * @param nodiff   whether to always download the full artifacts
+	 * @param store    the artifact store
+	 */
+	ArtifactSync(File location, File previous, boolean nodiff, ArtifactStore store)
+	{
+		this.location = location;
+		this.previous = previous;
+		this.nodiff = nodiff;
+		this.store = store;
+		this.hashIndex = store.getHashIndex();
+	}
+
+	void sync(List<Artifact> artifacts) throws IOException, VerificationException
+	{
+		// background syncs run at the priority of the thread which started them
+		int priority = Thread.currentThread().getPriority();
+		diskExecutor = Executors.newFixedThreadPool(DISK_THREADS, new ThreadFactoryBuilder()
+			.setNameFormat("sync-disk-%d")
+			.setPriority(priority)
+			.setDaemon(true)
+			.build());
+		networkExecutor = Executors.newFixedThreadPool(NETWORK_THREADS, new ThreadFactoryBuilder()
+			.setNameFormat("sync-net-%d")
+			.setPriority(priority)
+			.setDaemon(true)
+			.build());
+		patchExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+			.setNameFormat("sync-patch-%d")
+			.setPriority(priority)
+			.setDaemon(true)
+			.build());
+		deflateExecutor = Executors.newFixedThreadPool(DEFLATE_THREADS, new ThreadFactoryBuilder()
+			.setNameFormat("sync-deflate-%d")
+			.setPriority(priority)
+			.setDaemon(true)
+			.build());
+
+		ProgressModel.get().startTransfer(START_PROGRESS, END_PROGRESS, "Downloading", 0);
+
+		try
+		{
+			// Fail up front rather than part way through with a full disk
+			long required = 0;
+			for (Artifact artifact : artifacts)
+			{
+				if (!store.file(artifact.getHash()).exists())
+				{
+					required += artifact.getSize();
+				}
+			}
+			store.checkSpace(required);
+
+			// chunking the new objects of the store hashes all of them, so it is started before the artifacts
+			// are checked rather than by the first artifact which is rebuilt from chunks
+			chunkIndexUpdate = CompletableFuture.runAsync(() -> store.getChunkIndex().update(store), diskExecutor);
+
+			List<CompletableFuture<Void>> futures = new ArrayList<>(artifacts.size());
+			for (Artifact artifact : artifacts)
+			{
+				futures.add(CompletableFuture.supplyAsync(() -> check(artifact), diskExecutor)
+					.thenCompose(this::fetch)
+					.thenAccept(this::verify));
+			}
+
+			try
+			{
+				CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+			}
+			catch (CompletionException ex)
+			{
+				Throwable cause = ex.getCause();
+				if (cause instanceof UncheckedIOException)
+				{
+					throw ((UncheckedIOException) cause).getCause();
+				}
+				if (cause instanceof UncheckedVerificationException)
+				{
+					throw ((UncheckedVerificationException) cause).getCause();
+				}
+				throw ex;
+			}
+		}
+		finally
+		{
+			networkExecutor.shutdownNow();
+			patchExecutor.shutdownNow();
+			deflateExecutor.shutdownNow();
+			diskExecutor.shutdownNow();
+			hashIndex.save();
+			Mirrors.shared().save();
+			costModel.save();
+			store.getChunkIndex().save();
+			ProbeCache.shared().save();
+			if (RetryPolicy.getRetries() > 0)
+			{
+				log.info("{} requests have been retried, see the warnings above for the causes", RetryPolicy.getRetries());
+			}
+		}
+	}
+
+	/**
+	 * Check if the artifact is already in the store and, if it isn't, find a diff which can be applied
+	 * to an object in the store or one of the files already in the repository.
+	 */
+	private Plan check(Artifact artifact)
+	{
+		if (store.contains(artifact.getHash()))
+		{
+			log.debug("Hash for {} up to date", artifact.getName());
+			return new Plan(artifact, null, null, artifact.getHash());
+		}
+
+		// Repositories written before the store existed are imported into it
+		File dest = new File(previous, artifact.getName());
+		if (artifact.getHash().equals(hash(dest)))
+		{
+			try
+			{
+				store.adopt(dest, artifact.getHash());
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+			log.debug("Hash for {} up to date, added to store", artifact.getName());
+			return new Plan(artifact, null, null, artifact.getHash());
+		}
+
+		Diff diff = null;
+		File base = null;
+		if (!nodiff && artifact.getDiffs() != null)
+		{
+			// hash the candidate bases which aren't in the store at once
+			List<File> candidates = new ArrayList<>();
+			for (Diff d : artifact.getDiffs())
+			{
+				if (!store.contains(d.getFromHash()))
+				{
+					candidates.add(new File(previous, d.getFrom()));
+				}
+			}
+			Map<File, String> hashes = hashIndex.hashAll(candidates);
+
+			Map<Diff, File> bases = new HashMap<>();
+			for (Diff d : artifact.getDiffs())
+			{
+				File old;
+				if (store.contains(d.getFromHash()))
+				{
+					old = store.file(d.getFromHash());
+				}
+				else
+				{
+					old = new File(previous, d.getFrom());
+					// Check if old file is valid
+					if (!d.getFromHash().equals(hashes.get(old)))
+					{
+						continue;
+					}
+				}
+
+				bases.put(d, old);
+			}
+
+			diff = costModel.choose(artifact, new ArrayList<>(bases.keySet()));
+			base = diff != null ? bases.get(diff) : null;
+		}
+
+		ProgressModel.get().addTotal(diff != null ? diff.getSize() : artifact.getSize());
+		return new Plan(artifact, diff, base, null);
+	}
+
+	private String hash(File file)
+	{
+		try
+		{
+			return hashIndex.hash(file);
+		}
+		catch (FileNotFoundException ex)
+		{
+			return null;
+		}
+		catch (IOException ex)
+		{
+			log.debug("unable to hash {}", file, ex);
+			return null;
+		}
+	}
+
+	private CompletableFuture<Plan> fetch(Plan plan)
+	{
+		if (plan.hash != null)
+		{
+			return CompletableFuture.completedFuture(plan);
+		}
+
+		Artifact artifact = plan.artifact;
+		return store.fetchOnce(artifact.getHash(), () -> fetchObject(plan).thenApply(fetched -> store.file(artifact.getHash())))
+			.thenApply(object -> new Plan(artifact, plan.diff, plan.base, artifact.getHash()));
+	}
+
+	private CompletableFuture<Plan> fetchObject(Plan plan)
+	{
+		if (plan.diff == null)
+		{
+			return CompletableFuture.supplyAsync(() -> downloadChunked(plan), networkExecutor);
+		}
+
+		// The patch is applied while it downloads. The applier runs on its own thread rather than the disk
+		// pool, since a download blocked on a full pipe must never wait on a queued reader.
+		PipedInputStream patchIn = new PipedInputStream(PIPE_SIZE);
+		PipedOutputStream patchOut;
+		try
+		{
+			patchOut = new PipedOutputStream(patchIn);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+
+		CompletableFuture<Void> download = CompletableFuture.runAsync(() -> downloadDiff(plan, patchOut), networkExecutor);
+		CompletableFuture<Plan> patch = CompletableFuture.supplyAsync(() -> applyDiff(plan, patchIn), patchExecutor);
+		return download.thenCombine(patch, (v, patched) -> patched)
+			.thenCompose(patched ->
+			{
+				if (patched.hash != null)
+				{
+					return CompletableFuture.completedFuture(patched);
+				}
+
+				// Adjust the download size for the difference and fall back to the full artifact
+				ProgressModel.get().addTotal(plan.artifact.getSize() - plan.diff.getSize());
+				return CompletableFuture.supplyAsync(() -> downloadFull(plan), networkExecutor);
+			});
+	}
+
+	private void downloadDiff(Plan plan, OutputStream out)
+	{
+		Diff diff = plan.diff;
+		log.debug("Downloading diff {}", diff.getName());
+
+		Progress progress = new Progress(diff.getName());
+		// not timed for the cost model, the patch reading the pipe slows the download down
+		try (OutputStream o = out)
+		{
+			Launcher.download(diff.getPath(), diff.getHash(), progress, o);
+		}
+		catch (IOException | VerificationException e)
+		{
+			// the patched artifact is verified by its own hash, so only the progress needs to be undone here
+			log.warn("unable to download patch {}", diff.getName(), e);
+			progress.reset();
+		}
+	}
+
+	private Plan applyDiff(Plan plan, InputStream patch)
+	{
+		Artifact artifact = plan.artifact;
+		File tmp = null;
+		File deltaFriendly = null;
+		HashCode hash;
+		ParallelDeltaApplier applier = new ParallelDeltaApplier(deflateExecutor);
+		// closing the pipe unblocks the download if the patch fails early
+		try
+		{
+			tmp = store.createTempFile();
+			deltaFriendly = store.createTempFile();
+			long cpuStart = cpuTime();
+			try (RandomAccessFile file = new RandomAccessFile(tmp, "rw");
+				InputStream patchStream = new GZIPInputStream(patch, PIPE_SIZE))
+			{
+				// reserve the whole file up front so it can be laid out in one piece
+				file.setLength(artifact.getSize());
+
+				HashingOutputStream fout = new HashingOutputStream(Hashing.sha256(),
+					new BufferedOutputStream(Channels.newOutputStream(file.getChannel()), PIPE_SIZE));
+				applier.applyDelta(plan.base, deltaFriendly, patchStream, fout);
+				// read to the end so the download completes and the patch hash is checked
+				ByteStreams.exhaust(patchStream);
+				fout.flush();
+
+				// trim the preallocated space if the artifact came out smaller
+				file.setLength(file.getChannel().position());
+				hash = fout.hash();
+			}
+			if (cpuStart >= 0)
+			{
+				// the recompression is spread over the pool, so only a share of it adds to the time taken
+				long cpu = cpuTime() - cpuStart + applier.getWorkerCpuTime() / DEFLATE_THREADS;
+				costModel.recordPatch(artifact.getSize(), cpu);
+			}
+
+			if (artifact.getHash().equals(hash.toString()))
+			{
+				log.debug("Patching successful for {}", artifact.getName());
+				store.add(tmp, hash.toString());
+				return new Plan(artifact, plan.diff, plan.base, hash.toString());
+			}
+		}
+		catch (IOException e)
+		{
+			log.warn("unable to apply patch {}", plan.diff.getName(), e);
+			closeQuietly(patch);
+			if (tmp != null)
+			{
+				tmp.delete();
+			}
+			return plan;
+		}
+		finally
+		{
+			if (deltaFriendly != null)
+			{
+				deltaFriendly.delete();
+			}
+		}
+
+		log.debug("Patched artifact hash mismatches! {}: got {} expected {}", artifact.getName(), hash.toString(), artifact.getHash());
+		tmp.delete();
+		return plan;
+	}
+
+	/**
+	 * Rebuild an artifact from the chunks of it which are already in the store, when enough of it is.
+	 * Falls back to downloading all of it.
+	 */
+	private Plan downloadChunked(Plan plan)
+	{
+		Artifact artifact = plan.artifact;
+		if (nodiff || artifact.getChunks() == null)
+		{
+			return downloadFull(plan);
+		}
+
+		File tmp = null;
+		Progress progress = new Progress(artifact.getName());
+		long missing = artifact.getSize();
+		try
+		{
+			List<Chunk> chunks = getChunks(artifact);
+			if (chunks == null)
+			{
+				return downloadFull(plan);
+			}
+
+			chunkIndexUpdate.join();
+			ChunkedDownload download = new ChunkedDownload(artifact.getPath(), chunks, store);
+			if (download.getMissing() > artifact.getSize() * (1 - MIN_LOCAL_CHUNKS))
+			{
+				log.debug("Too little of {} is in the store to rebuild it from chunks", artifact.getName());
+				return downloadFull(plan);
+			}
+
+			missing = download.getMissing();
+			ProgressModel.get().addTotal(missing - artifact.getSize());
+			tmp = store.createTempFile();
+			// not timed for the cost model, copying the local chunks takes part of the time
+			String hash = download.progress(progress).download(tmp);
+			if (artifact.getHash().equals(hash))
+			{
+				log.debug("Rebuilt {} from chunks, downloading {} of {} bytes", artifact.getName(), missing, artifact.getSize());
+				store.add(tmp, hash);
+				return new Plan(artifact, null, null, hash);
+			}
+
+			log.warn("Artifact rebuilt from chunks mismatches! {}: got {} expected {}", artifact.getName(), hash, artifact.getHash());
+		}
+		catch (IOException | JsonParseException e)
+		{
+			log.warn("unable to rebuild {} from chunks", artifact.getName(), e);
+		}
+
+		if (tmp != null)
+		{
+			tmp.delete();
+		}
+		progress.reset();
+		ProgressModel.get().addTotal(artifact.getSize() - missing);
+		return downloadFull(plan);
+	}
+
+	/**
+	 * Fetch the chunk list of an artifact
+	 *
+	 * @return the chunks, or null if the list doesn't describe the artifact
+	 */
+	private static List<Chunk> getChunks(Artifact artifact) throws IOException
+	{
+		byte[] json = HttpRequestManager.shared().sendGet(artifact.getChunks());
+		Chunk[] chunks = new Gson().fromJson(new String(json, StandardCharsets.UTF_8), Chunk[].class);
+		if (chunks == null)
+		{
+			return null;
+		}
+
+		long size = 0;
+		for (Chunk chunk : chunks)
+		{
+			if (chunk.getHash() == null || chunk.getSize() <= 0 || chunk.getSize() > Chunker.MAX_SIZE)
+			{
+				log.warn("Invalid chunk list for {}", artifact.getName());
+				return null;
+			}
+			size += chunk.getSize();
+		}
+
+		if (size != artifact.getSize())
+		{
+			log.warn("Chunk list for {} is {} bytes, expected {}", artifact.getName(), size, artifact.getSize());
+			return null;
+		}
+		return Arrays.asList(chunks);
+	}
+
+	private Plan downloadFull(Plan plan)
+	{
+		Artifact artifact = plan.artifact;
+		log.debug("Downloading {}", artifact.getName());
+
+		try
+		{
+			File tmp = store.createTempFile();
+			long start = System.nanoTime();
+			new ResumableDownload(artifact.getPath(), artifact.getHash(), tmp)
+				.progress(new Progress(artifact.getName()))
+				.download();
+			costModel.recordDownload(artifact.getSize(), System.nanoTime() - start);
+			store.add(tmp, artifact.getHash());
+			return new Plan(artifact, null, null, artifact.getHash());
+		}
+		catch (VerificationException e)
+		{
+			throw new UncheckedVerificationException(e);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Get the CPU time of the current thread, which doesn't count time spent waiting on the diff download
+	 *
+	 * @return the time in ns, or -1 if it isn't supported
+	 */
+	static long cpuTime()
+	{
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		return bean.isCurrentThreadCpuTimeSupported() ? bean.getCurrentThreadCpuTime() : -1;
+	}
+
+	private void verify(Plan plan)
+	{
+		Artifact artifact = plan.artifact;
+		if (!artifact.getHash().equals(plan.hash))
+		{
+			log.warn("Expected {} for {} but got {}", artifact.getHash(), artifact.getName(), plan.hash);
+			throw new UncheckedVerificationException(new VerificationException("Expected " + artifact.getHash() + " for " + artifact.getName() + " but got " + plan.hash));
+		}
+
+		log.info("Verified hash of {}", artifact.getName());
+
+		try
+		{
+			store.checkout(artifact.getHash(), new File(location, artifact.getName()));
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void closeQuietly(InputStream in)
+	{
+		try
+		{
+			in.close();
+		}
+		catch (IOException ignored)
+		{
+		}
+	}
+
+	/**
+	 * Folds the progress of a single download into the progress of the whole sync. Only the bytes read
+	 * since the last report are passed on, so the sync's count never goes backwards; when a download
+	 * starts over, the bytes it throws away are added to the total instead.
+	 */
+	private static class Progress implements LongConsumer
+	{
+		private final String name;
+		private long last;
+
+		Progress(String name)
+		{
+			this.name = name;
+		}
+
+		@Override
+		public synchronized void accept(long completed)
+		{
+			ProgressModel model = ProgressModel.get();
+			if (completed >= last)
+			{
+				model.add(completed - last);
+			}
+			else
+			{
+				model.addTotal(last - completed);
+			}
+			last = completed;
+			model.setSubAction(name);
+		}
+
+		void reset()
+		{
+			accept(0);
+		}
+	}
+
+	private static class Plan
+	{
+		final Artifact artifact;
+		final Diff diff;
+		// file the diff applies to
+		final File base;
+		// hash of the object in the store, once it is known to be up to date
+		final String hash;
+
+		Plan(Artifact artifact, Diff diff, File base, String hash)
+		{
+			this.artifact = artifact;
+			this.diff = diff;
+			this.base = base;
+			this.hash = hash;
+		}
+	}
+
+	private static class UncheckedVerificationException extends RuntimeException
+	{
+		UncheckedVerificationException(VerificationException cause)
+		{
+			super(cause);
+		}
+
+		@Override
+		public synchronized VerificationException getCause()
+		{
+			return (VerificationException) super.getCause();
+		}
+	}
+}
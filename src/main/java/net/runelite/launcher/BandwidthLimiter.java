@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A token bucket shared by every download, limiting the total download rate of the launcher. In backoff
+ * mode the rate is lowered while a client started by a launcher is running, so updates don't take the
+ * connection away from a game in progress. Clients started by other launcher processes are found through
+ * the marker files they hold locked in {@code RUNELITE_DIR/clients}. Every byte downloaded passes through
+ * the bucket, so it also counts the bytes actually transferred, and can stop downloads on a condition.
+ */
+@Slf4j
+class BandwidthLimiter
+{
+	private static final long KB = 1024;
+	// the rate while a client is running and no limit is configured
+	private static final long CLIENT_RUNNING_RATE = 1024 * KB;
+	// the share of the configured limit used while a client is running
+	private static final int CLIENT_RUNNING_DIVISOR = 4;
+	private static final long CLIENT_CHECK_INTERVAL = TimeUnit.SECONDS.toNanos(5);
+	private static final long STOP_CHECK_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+	private static final File CLIENTS_DIR = new File(Launcher.RUNELITE_DIR, "clients");
+
+	private static final BandwidthLimiter INSTANCE = new BandwidthLimiter();
+
+	// the marker of the client running in this process, kept open for the life of the process
+	private static FileChannel marker;
+
+	// bytes per second, 0 for no limit
+	private volatile long limit;
+	private volatile boolean backoff;
+
+	private final List<Process> clients = new CopyOnWriteArrayList<>();
+
+	private final AtomicLong transferred = new AtomicLong();
+	private volatile BooleanSupplier stopCondition;
+	private volatile long lastStopCheck;
+
+	private double tokens;
+	private long lastRefill = System.nanoTime();
+	private long lastClientCheck;
+	private boolean clientRunning;
+
+	static BandwidthLimiter shared()
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * @param limitKb download limit in KB/s, 0 for no limit
+	 * @param backoff whether to lower the rate while a client is running
+	 */
+	void configure(int limitKb, boolean backoff)
+	{
+		this.limit = Math.max(0, limitKb) * KB;
+		this.backoff = backoff;
+	}
+
+	/**
+	 * Stop downloads with a {@link DownloadStoppedException} while a condition holds. The condition is
+	 * checked about once a second.
+	 */
+	void stopWhen(BooleanSupplier condition)
+	{
+		this.stopCondition = condition;
+	}
+
+	/**
+	 * Get the bytes downloaded by this process
+	 */
+	long getTransferred()
+	{
+		return transferred.get();
+	}
+
+	/**
+	 * Lower the rate for as long as a client process started by this launcher is running
+	 */
+	void clientStarted(Process process)
+	{
+		clients.add(process);
+	}
+
+	/**
+	 * Mark this process as running a client until it exits, for the limiters of other launcher processes
+	 */
+	static synchronized void markClientRunning()
+	{
+		if (marker != null)
+		{
+			return;
+		}
+
+		try
+		{
+			CLIENTS_DIR.mkdirs();
+			File file = File.createTempFile("client", ".lock", CLIENTS_DIR);
+			file.deleteOnExit();
+			marker = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+			marker.lock();
+		}
+		catch (IOException ex)
+		{
+			log.debug("unable to create client marker", ex);
+		}
+	}
+
+	/**
+	 * Take bytes which were just read from the bucket, sleeping until the rate is back under the limit
+	 */
+	void acquire(int bytes) throws InterruptedIOException
+	{
+		transferred.addAndGet(bytes);
+		checkStop();
+
+		long rate = currentRate();
+		if (rate <= 0)
+		{
+			return;
+		}
+
+		long sleep;
+		synchronized (this)
+		{
+			long now = System.nanoTime();
+			// allow bursts of up to a second
+			tokens = Math.min(rate, tokens + (now - lastRefill) * rate / 1e9);
+			lastRefill = now;
+			// the bucket can go into debt, which the readers wait out
+			tokens -= bytes;
+			sleep = tokens < 0 ? (long) (-tokens * 1e9 / rate) : 0;
+		}
+
+		if (sleep > 0)
+		{
+			try
+			{
+				TimeUnit.NANOSECONDS.sleep(sleep);
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("download interrupted");
+			}
+		}
+	}
+
+	private void checkStop() throws DownloadStoppedException
+	{
+		BooleanSupplier condition = stopCondition;
+		long now = System.nanoTime();
+		if (condition == null || now - lastStopCheck < STOP_CHECK_INTERVAL)
+		{
+			return;
+		}
+
+		lastStopCheck = now;
+		if (condition.getAsBoolean())
+		{
+			throw new DownloadStoppedException("download stopped");
+		}
+	}
+
+	private long currentRate()
+	{
+		long rate = limit;
+		if (backoff && isClientRunning())
+		{
+			return rate > 0 ? rate / CLIENT_RUNNING_DIVISOR : CLIENT_RUNNING_RATE;
+		}
+		return rate;
+	}
+
+	private synchronized boolean isClientRunning()
+	{
+		long now = System.nanoTime();
+		if (now - lastClientCheck < CLIENT_CHECK_INTERVAL && lastClientCheck != 0)
+		{
+			return clientRunning;
+		}
+		lastClientCheck = now;
+
+		clients.removeIf(process -> !process.isAlive());
+		clientRunning = marker != null || !clients.isEmpty() || isMarkerLocked();
+		if (clientRunning)
+		{
+			log.debug("A client is running, downloads are limited to {} KB/s", (limit > 0 ? limit / CLIENT_RUNNING_DIVISOR : CLIENT_RUNNING_RATE) / KB);
+		}
+		return clientRunning;
+	}
+
+	/**
+	 * Check for a client running in another launcher process, removing the markers of ones which exited
+	 */
+	private static boolean isMarkerLocked()
+	{
+		File[] files = CLIENTS_DIR.listFiles((dir, name) -> name.endsWith(".lock"));
+		if (files == null)
+		{
+			return false;
+		}
+
+		boolean running = false;
+		for (File file : files)
+		{
+			boolean stale = false;
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE))
+			{
+				FileLock lock = channel.tryLock();
+				if (lock == null)
+				{
+					running = true;
+				}
+				else
+				{
+					// the process which held it is gone
+					lock.release();
+					stale = true;
+				}
+			}
+			catch (OverlappingFileLockException ex)
+			{
+				running = true;
+			}
+			catch (IOException ex)
+			{
+				log.debug("unable to check client marker {}", file, ex);
+			}
+
+			if (stale)
+			{
+				file.delete();
+			}
+		}
+		return running;
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.launcher.beans.Chunk;
+
+/**
+ * An on-disk index of the content defined chunks of every object in the artifact store. Objects are
+ * immutable and named by their hash, so the chunks of an object are computed once and kept until the object
+ * is removed from the store.
+ */
+@Slf4j
+class ChunkIndex
+{
+	private static final Type INDEX_TYPE = new TypeToken<Map<String, List<Chunk>>>()
+	{
+	}.getType();
+
+	private final File indexFile;
+	// object hash to the chunks of the object
+	private final Map<String, List<Chunk>> objects = new HashMap<>();
+	// chunk hash to where the chunk can be found
+	private final Map<String, Location> chunks = new HashMap<>();
+	private boolean dirty;
+
+	private ChunkIndex(File indexFile)
+	{
+		this.indexFile = indexFile;
+	}
+
+	static ChunkIndex load(File indexFile)
+	{
+		ChunkIndex index = new ChunkIndex(indexFile);
+		try (Reader in = new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8))
+		{
+			Map<String, List<Chunk>> objects = new Gson().fromJson(in, INDEX_TYPE);
+			if (objects != null)
+			{
+				index.objects.putAll(objects);
+			}
+		}
+		catch (FileNotFoundException ex)
+		{
+			log.debug("chunk index does not exist");
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("unable to load chunk index", ex);
+		}
+		return index;
+	}
+
+	/**
+	 * Bring the index up to date with the objects in the store, chunking any objects which are new. The
+	 * new objects are chunked without holding the index, so lookups aren't held up by it.
+	 */
+	void update(ArtifactStore store)
+	{
+		Collection<String> present = new HashSet<>(store.objects());
+		List<String> added = new ArrayList<>();
+		synchronized (this)
+		{
+			dirty |= objects.keySet().retainAll(present);
+			for (String hash : present)
+			{
+				if (!objects.containsKey(hash))
+				{
+					added.add(hash);
+				}
+			}
+		}
+
+		Map<String, List<Chunk>> chunked = new HashMap<>();
+		for (String hash : added)
+		{
+			try
+			{
+				chunked.put(hash, Chunker.chunk(store.file(hash)));
+			}
+			catch (IOException ex)
+			{
+				log.debug("unable to chunk object {}", hash, ex);
+			}
+		}
+
+		synchronized (this)
+		{
+			if (!chunked.isEmpty())
+			{
+				objects.putAll(chunked);
+				dirty = true;
+			}
+			index();
+		}
+	}
+
+	private void index()
+	{
+		chunks.clear();
+		for (Map.Entry<String, List<Chunk>> entry : objects.entrySet())
+		{
+			long offset = 0;
+			for (Chunk chunk : entry.getValue())
+			{
+				chunks.putIfAbsent(chunk.getHash(), new Location(entry.getKey(), offset));
+				offset += chunk.getSize();
+			}
+		}
+		log.debug("Chunk index has {} chunks in {} objects", chunks.size(), objects.size());
+	}
+
+	/**
+	 * Find a chunk in the store
+	 *
+	 * @return where the chunk is, or null if no object has it
+	 */
+	synchronized Location find(String hash)
+	{
+		return chunks.get(hash);
+	}
+
+	synchronized void save()
+	{
+		if (!dirty)
+		{
+			return;
+		}
+
+		try
+		{
+			JsonFiles.writeJsonAtomically(indexFile, objects, INDEX_TYPE);
+			dirty = false;
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save chunk index", ex);
+		}
+	}
+
+	static class Location
+	{
+		// hash of the object the chunk is in
+		final String object;
+		final long offset;
+
+		Location(String object, long offset)
+		{
+			this.object = object;
+			this.offset = offset;
+		}
+	}
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.launcher.beans.Chunk;
+
+/**
+ * Rebuilds a file from its content defined chunks, copying the chunks which are already in an object in the
+ * artifact store and fetching the rest with range requests. Missing chunks which are close together are
+ * fetched in one request. The caller verifies the rebuilt file against the artifact hash.
+ */
+@Slf4j
+class ChunkedDownload
+{
+	// missing chunks this close together are fetched in one request, along with the chunks between them
+	private static final int MERGE_GAP = 64 * 1024;
+	private static final int MAX_RANGE = 4 * 1024 * 1024;
+
+	private final String url;
+	private final ArtifactStore store;
+	private final List<Range> ranges = new ArrayList<>();
+	private final List<Copy> copies = new ArrayList<>();
+	private final long length;
+	/**
+	 * the number of bytes which have to be downloaded
+	 */
+	@Getter
+	private final long missing;
+
+	private LongConsumer progress = (completed) -> {};
+
+	ChunkedDownload(String url, List<Chunk> chunks, ArtifactStore store)
+	{
+		this.url = url;
+		this.store = store;
+
+		ChunkIndex index = store.getChunkIndex();
+		long offset = 0;
+		List<ChunkIndex.Location> locations = new ArrayList<>(chunks.size());
+		for (Chunk chunk : chunks)
+		{
+			ChunkIndex.Location location = index.find(chunk.getHash());
+			locations.add(location);
+			if (location == null)
+			{
+				long end = offset + chunk.getSize();
+				Range last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+				if (last != null && offset - last.end <= MERGE_GAP && end - last.start <= MAX_RANGE)
+				{
+					last.end = end;
+				}
+				else
+				{
+					ranges.add(new Range(offset, end));
+				}
+			}
+			offset += chunk.getSize();
+		}
+		length = offset;
+
+		// copy the local chunks which aren't fetched as part of a range anyway
+		offset = 0;
+		int range = 0;
+		long fetched = 0;
+		for (int i = 0; i < chunks.size(); ++i)
+		{
+			int size = chunks.get(i).getSize();
+			while (range < ranges.size() && ranges.get(range).end <= offset)
+			{
+				++range;
+			}
+
+			ChunkIndex.Location location = locations.get(i);
+			boolean inRange = range < ranges.size() && ranges.get(range).start <= offset;
+			if (location != null && !inRange)
+			{
+				copies.add(new Copy(location.object, location.offset, offset, size));
+			}
+			if (inRange)
+			{
+				fetched += size;
+			}
+			offset += size;
+		}
+		missing = fetched;
+	}
+
+	ChunkedDownload progress(LongConsumer progress)
+	{
+		this.progress = progress;
+		return this;
+	}
+
+	/**
+	 * Rebuild the file
+	 *
+	 * @return the sha-256 of the rebuilt file
+	 */
+	String download(File dest) throws IOException
+	{
+		log.debug("Rebuilding {} from {} local chunks and {} ranges, {} of {} bytes to download", url, copies.size(),
+			ranges.size(), missing, length);
+
+		AtomicLong downloaded = new AtomicLong();
+		try (RandomAccessFile file = new RandomAccessFile(dest, "rw"))
+		{
+			file.setLength(length);
+			FileChannel channel = file.getChannel();
+
+			List<CompletableFuture<Void>> fetches = new ArrayList<>(ranges.size());
+			for (Range range : ranges)
+			{
+				fetches.add(fetch(range, channel, downloaded));
+			}
+
+			try
+			{
+				copy(channel);
+				for (CompletableFuture<Void> fetch : fetches)
+				{
+					HttpRequestManager.join(fetch);
+				}
+			}
+			finally
+			{
+				for (CompletableFuture<Void> fetch : fetches)
+				{
+					fetch.cancel(false);
+				}
+			}
+		}
+
+		return HashService.sha256(dest);
+	}
+
+	private void copy(FileChannel channel) throws IOException
+	{
+		Map<String, FileChannel> sources = new HashMap<>();
+		ByteBuffer buffer = ByteBuffer.allocate(Chunker.MAX_SIZE);
+		try
+		{
+			for (Copy copy : copies)
+			{
+				FileChannel source = sources.get(copy.object);
+				if (source == null)
+				{
+					source = FileChannel.open(store.file(copy.object).toPath(), StandardOpenOption.READ);
+					sources.put(copy.object, source);
+				}
+
+				buffer.clear();
+				buffer.limit(copy.size);
+				while (buffer.hasRemaining())
+				{
+					if (source.read(buffer, copy.source + buffer.position()) == -1)
+					{
+						throw new IOException("object " + copy.object + " is shorter than its chunk index");
+					}
+				}
+
+				buffer.flip();
+				long position = copy.dest;
+				while (buffer.hasRemaining())
+				{
+					position += channel.write(buffer, position);
+				}
+			}
+		}
+		finally
+		{
+			for (FileChannel source : sources.values())
+			{
+				source.close();
+			}
+		}
+	}
+
+	private CompletableFuture<Void> fetch(Range range, FileChannel channel, AtomicLong downloaded)
+	{
+		Map<String, String> headers = Collections.singletonMap("Range", "bytes=" + range.start + "-" + (range.end - 1));
+		return HttpRequestManager.shared().fetchMirroredAsync(url, headers, conn ->
+		{
+			HttpRequestManager.checkStatus(conn, url);
+			if (conn.getResponseCode() != HttpURLConnection.HTTP_PARTIAL
+				|| !Objects.toString(conn.getHeaderField("Content-Range"), "").startsWith("bytes " + range.start + "-"))
+			{
+				throw new IOException("no range response for " + url);
+			}
+
+			long position = range.start;
+			long written = 0;
+			try (InputStream in = conn.getInputStream())
+			{
+				StallDetector stall = new StallDetector();
+				byte[] buffer = new byte[64 * 1024];
+				int i;
+				while (position < range.end && (i = stall.read(in, buffer, 0, (int) Math.min(buffer.length, range.end - position))) != -1)
+				{
+					BandwidthLimiter.shared().acquire(i);
+					ByteBuffer buf = ByteBuffer.wrap(buffer, 0, i);
+					while (buf.hasRemaining())
+					{
+						position += channel.write(buf, position);
+					}
+					written += i;
+					progress.accept(downloaded.addAndGet(i));
+				}
+			}
+			catch (IOException ex)
+			{
+				// the range is fetched again from the start
+				progress.accept(downloaded.addAndGet(-written));
+				throw ex;
+			}
+
+			if (position != range.end)
+			{
+				progress.accept(downloaded.addAndGet(-written));
+				throw new IOException("range of " + url + " ended at " + position + ", expected " + range.end);
+			}
+			return null;
+		});
+	}
+
+	private static class Range
+	{
+		final long start;
+		long end;
+
+		Range(long start, long end)
+		{
+			this.start = start;
+			this.end = end;
+		}
+	}
+
+	private static class Copy
+	{
+		final String object;
+		final long source;
+		final long dest;
+		final int size;
+
+		Copy(String object, long source, long dest, int size)
+		{
+			this.object = object;
+			this.source = source;
+			this.dest = dest;
+			this.size = size;
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.launcher.beans.Chunk;
+
+/**
+ * Splits files into content defined chunks, so that data which is shared between two files is cut into
+ * the same chunks in both no matter where it is. Cut points are found with a gear rolling hash and
+ * normalized chunking (FastCDC): a strict mask is used before the average size and a loose one after, which
+ * keeps chunk sizes close to the average. Chunk lists published with artifacts must be made with exactly
+ * these parameters and gear table.
+ */
+class Chunker
+{
+	static final int MIN_SIZE = 4 * 1024;
+	static final int AVG_SIZE = 16 * 1024;
+	static final int MAX_SIZE = 64 * 1024;
+
+	// 2 bits more and less than log2(AVG_SIZE), taken from the top of the hash
+	private static final long MASK_STRICT = -1L << (64 - 16);
+	private static final long MASK_LOOSE = -1L << (64 - 12);
+
+	private static final int BUFFER_SIZE = 1024 * 1024;
+
+	// package-private so tests can pin it, chunk lists from the server depend on every value
+	static final long[] GEAR = new long[256];
+
+	static
+	{
+		// splitmix64 seeded with 0
+		long seed = 0;
+		for (int i = 0; i < GEAR.length; ++i)
+		{
+			long z = (seed += 0x9E3779B97F4A7C15L);
+			z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+			z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+			GEAR[i] = z ^ (z >>> 31);
+		}
+	}
+
+	private Chunker()
+	{
+	}
+
+	static List<Chunk> chunk(File file) throws IOException
+	{
+		try (InputStream in = new FileInputStream(file))
+		{
+			return chunk(in);
+		}
+	}
+
+	/**
+	 * Split a stream into chunks
+	 *
+	 * @return the chunks, in order
+	 */
+	static List<Chunk> chunk(InputStream in) throws IOException
+	{
+		List<Chunk> chunks = new ArrayList<>();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		int start = 0;
+		int end = 0;
+		boolean eof = false;
+
+		for (;;)
+		{
+			// keep at least a whole chunk of data in the buffer
+			if (!eof && end - start < MAX_SIZE)
+			{
+				System.arraycopy(buffer, start, buffer, 0, end - start);
+				end -= start;
+				start = 0;
+
+				int n;
+				while (end < buffer.length && (n = in.read(buffer, end, buffer.length - end)) != -1)
+				{
+					end += n;
+				}
+				eof = end < buffer.length;
+			}
+
+			if (start == end)
+			{
+				return chunks;
+			}
+
+			int length = cut(buffer, start, end);
+			Chunk chunk = new Chunk();
+			chunk.setHash(Hashing.sha256().hashBytes(buffer, start, length).toString());
+			chunk.setSize(length);
+			chunks.add(chunk);
+			start += length;
+		}
+	}
+
+	/**
+	 * Find the end of the chunk starting at off
+	 *
+	 * @return the length of the chunk
+	 */
+	static int cut(byte[] data, int off, int end)
+	{
+		int length = end - off;
+		if (length <= MIN_SIZE)
+		{
+			return length;
+		}
+
+		length = Math.min(length, MAX_SIZE);
+		int normal = Math.min(length, AVG_SIZE);
+		long hash = 0;
+		int i = MIN_SIZE;
+		for (; i < normal; ++i)
+		{
+			hash = (hash << 1) + GEAR[data[off + i] & 0xff];
+			if ((hash & MASK_STRICT) == 0)
+			{
+				return i + 1;
+			}
+		}
+		for (; i < length; ++i)
+		{
+			hash = (hash << 1) + GEAR[data[off + i] & 0xff];
+			if ((hash & MASK_LOOSE) == 0)
+			{
+				return i + 1;
+			}
+		}
+		return length;
+	}
+}
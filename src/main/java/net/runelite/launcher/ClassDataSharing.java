@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains AppCDS archives of the classes the client loads, so the JVM maps them in already parsed and
+ * verified instead of loading them from the jars on every start. Clients started from the same archive
+ * share its read-only pages. Archives are keyed by the JVM and the classpath, so an update gets a new
+ * archive, which is built as the first client of the update exits instead of while it starts.
+ * <p>
+ * Java 19 and newer create and refresh the archive themselves. On Java 13 to 18 the client dumps the
+ * classes it loaded when it exits, and the dump is used from the next launch on. Older JVMs, OpenJ9, and
+ * launches which configure class data sharing themselves don't use an archive. A JVM which can't map an
+ * archive ignores it and loads the classes from the jars.
+ */
+@Slf4j
+class ClassDataSharing
+{
+	private static final File CDS_DIR = new File(Launcher.RUNELITE_DIR, "cds");
+	private static final String ARCHIVE = ".jsa";
+	private static final String DUMP = ".dump";
+	// a dump which hasn't been written to for this long is complete, the JVM writes it in one go at exit
+	private static final long DUMP_SETTLE_TIME = TimeUnit.MINUTES.toMillis(1);
+	// archives no launch has used for this long are for a classpath or JVM which is gone
+	private static final long UNUSED_EXPIRY = TimeUnit.DAYS.toMillis(14);
+
+	private ClassDataSharing()
+	{
+	}
+
+	/**
+	 * Get the JVM arguments which make the client use, or create, the archive for its classpath
+	 *
+	 * @param javaHome  home of the JVM the client runs on
+	 * @param classpath every jar on the classpath of the client's JVM, including ones loaded by a class loader
+	 *                  of the launcher
+	 * @param jvmArgs   the other JVM arguments
+	 * @return the arguments, or an empty list if the JVM shouldn't use an archive
+	 */
+	static List<String> getArguments(File javaHome, Collection<File> classpath, Collection<String> jvmArgs)
+	{
+		for (String arg : jvmArgs)
+		{
+			if (arg.contains("-Xshare") || arg.contains("SharedArchiveFile") || arg.contains("ArchiveClassesAtExit"))
+			{
+				log.debug("Class data sharing is configured by the JVM arguments, not using an archive");
+				return Collections.emptyList();
+			}
+		}
+
+		Properties release = readRelease(javaHome);
+		if (release == null)
+		{
+			return Collections.emptyList();
+		}
+
+		int major;
+		try
+		{
+			major = Launcher.getMajorJavaVersion(unquote(release.getProperty("JAVA_VERSION", "")));
+		}
+		catch (NumberFormatException ex)
+		{
+			log.debug("unable to parse the version of {}", javaHome, ex);
+			return Collections.emptyList();
+		}
+
+		// OpenJ9 has its own shared classes cache
+		if (major < 13 || unquote(release.getProperty("JVM_VARIANT", "")).equalsIgnoreCase("openj9"))
+		{
+			log.debug("JVM {} doesn't support dynamic class data sharing archives", javaHome);
+			return Collections.emptyList();
+		}
+
+		if (!CDS_DIR.exists() && !CDS_DIR.mkdirs())
+		{
+			log.warn("unable to create {}", CDS_DIR);
+			return Collections.emptyList();
+		}
+
+		String key = key(javaHome, release, classpath);
+		removeUnused(key);
+
+		File archive = new File(CDS_DIR, key + ARCHIVE);
+		if (major >= 19)
+		{
+			// the JVM checks the archive itself, and recreates it at exit if it is missing or unusable
+			touch(archive);
+			return Arrays.asList("-XX:SharedArchiveFile=" + archive.getAbsolutePath(), "-XX:+AutoCreateSharedArchive");
+		}
+
+		promoteDump(key, archive);
+		if (archive.exists())
+		{
+			log.debug("Using class data sharing archive {}", archive);
+			touch(archive);
+			return Collections.singletonList("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+		}
+
+		// each client dumps to its own file, so clients exiting at the same time don't write over each other
+		File dump = new File(CDS_DIR, key + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong()) + DUMP);
+		log.info("The client will create class data sharing archive {} when it exits", archive.getName());
+		return Collections.singletonList("-XX:ArchiveClassesAtExit=" + dump.getAbsolutePath());
+	}
+
+	/**
+	 * Record that an archive was used. The JVM writes archives read only, which would keep their time from
+	 * being set on Windows.
+	 */
+	private static void touch(File archive)
+	{
+		archive.setWritable(true);
+		archive.setLastModified(System.currentTimeMillis());
+	}
+
+	private static Properties readRelease(File javaHome)
+	{
+		try (InputStream in = new FileInputStream(new File(javaHome, "release")))
+		{
+			Properties release = new Properties();
+			release.load(in);
+			return release;
+		}
+		catch (IOException ex)
+		{
+			log.debug("unable to read the release file of {}", javaHome, ex);
+			return null;
+		}
+	}
+
+	private static String unquote(String value)
+	{
+		return value.replace("\"", "").trim();
+	}
+
+	/**
+	 * Identify the JVM and the exact jars on the classpath. Generations are never written to, so the size and
+	 * modification time of each jar are enough.
+	 */
+	private static String key(File javaHome, Properties release, Collection<File> classpath)
+	{
+		Hasher hasher = Hashing.sha256().newHasher()
+			.putString(javaHome.getAbsolutePath(), StandardCharsets.UTF_8)
+			.putString(new TreeMap<>(release).toString(), StandardCharsets.UTF_8);
+		for (File file : classpath)
+		{
+			hasher.putString(file.getAbsolutePath(), StandardCharsets.UTF_8)
+				.putLong(file.length())
+				.putLong(file.lastModified());
+		}
+		return hasher.hash().toString().substring(0, 32);
+	}
+
+	/**
+	 * Make the newest complete dump of the classpath its archive
+	 */
+	private static void promoteDump(String key, File archive)
+	{
+		File[] dumps = CDS_DIR.listFiles((dir, name) -> name.startsWith(key + "-") && name.endsWith(DUMP));
+		if (dumps == null)
+		{
+			return;
+		}
+
+		long settled = System.currentTimeMillis() - DUMP_SETTLE_TIME;
+		File newest = null;
+		for (File dump : dumps)
+		{
+			if (dump.lastModified() < settled && (newest == null || dump.lastModified() > newest.lastModified()))
+			{
+				newest = dump;
+			}
+		}
+
+		if (newest == null)
+		{
+			return;
+		}
+
+		// the JVM writes archives read only, which can't be replaced on Windows
+		archive.setWritable(true);
+		try
+		{
+			try
+			{
+				Files.move(newest.toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex)
+			{
+				log.debug("atomic move not supported", ex);
+				Files.move(newest.toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			log.debug("Created class data sharing archive {}", archive);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to move {} to {}", newest, archive, ex);
+			return;
+		}
+
+		for (File dump : dumps)
+		{
+			if (dump != newest && dump.lastModified() < settled)
+			{
+				dump.delete();
+			}
+		}
+	}
+
+	/**
+	 * Remove the archives and dumps of other classpaths and JVMs which haven't been used in a while
+	 */
+	private static void removeUnused(String key)
+	{
+		File[] files = CDS_DIR.listFiles((dir, name) -> !name.startsWith(key));
+		if (files == null)
+		{
+			return;
+		}
+
+		long cutoff = System.currentTimeMillis() - UNUSED_EXPIRY;
+		for (File file : files)
+		{
+			// archives mapped by a running client can't be deleted on Windows, they are retried on the next launch
+			if (file.lastModified() < cutoff && file.setWritable(true) && file.delete())
+			{
+				log.debug("Removed unused class data sharing archive {}", file);
+			}
+		}
+	}
+}
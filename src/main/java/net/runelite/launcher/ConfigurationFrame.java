@@ -33,6 +33,9 @@ import java.awt.event.ActionEvent;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import javax.annotation.Nullable;
 import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
@@ -58,6 +61,8 @@ public class ConfigurationFrame extends JFrame
     private final JCheckBox chkboxSkipTlsVerification;
     private final JCheckBox chkboxNoUpdates;
     private final JCheckBox chkboxSafemode;
+    private final JCheckBox chkboxOffline;
+    private final JCheckBox chkboxQuickLaunch;
     private final JTextField txtScale;
     private final JTextArea txtClientArguments;
     private final JTextArea txtJvmArguments;
@@ -87,7 +92,7 @@ public class ConfigurationFrame extends JFrame
 
         JPanel topPanel = new JPanel();
         topPanel.setBackground(DARKER_GRAY_COLOR);
-        topPanel.setLayout(new GridLayout(3, 2, 0, 0));
+        topPanel.setLayout(new GridLayout(4, 2, 0, 0));
         topPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 8, 0));
 
         topPanel.add(chkboxDebug = checkbox(
@@ -120,6 +125,18 @@ public class ConfigurationFrame extends JFrame
                 Boolean.TRUE.equals(settings.safemode)
         ));
 
+        topPanel.add(chkboxOffline = checkbox(
+                "Offline",
+                "Launches the last verified client without using the network",
+                Boolean.TRUE.equals(settings.offline)
+        ));
+
+        topPanel.add(chkboxQuickLaunch = checkbox(
+                "Quick launch",
+                "Starts the last downloaded client right away, and downloads updates in the background for the next launch",
+                Boolean.TRUE.equals(settings.quickLaunch)
+        ));
+
         pane.add(topPanel);
 
         JPanel midPanel = new JPanel();
@@ -180,6 +197,11 @@ public class ConfigurationFrame extends JFrame
         save.addActionListener(this::save);
         buttonPanel.add(save);
 
+        JButton rollback = new JButton("Roll back");
+        rollback.setToolTipText("Launches the client version before the latest one once, without using the network");
+        rollback.addActionListener(this::rollback);
+        buttonPanel.add(rollback);
+
         JButton cancel = new JButton("Cancel");
         cancel.addActionListener(l -> dispose());
         buttonPanel.add(cancel);
@@ -199,6 +221,8 @@ public class ConfigurationFrame extends JFrame
         settings.skipTlsVerification = chkboxSkipTlsVerification.isSelected();
         settings.noupdates = chkboxNoUpdates.isSelected();
         settings.safemode = chkboxSafemode.isSelected();
+        settings.offline = chkboxOffline.isSelected();
+        settings.quickLaunch = chkboxQuickLaunch.isSelected();
 
         String t = txtScale.getText();
         settings.scale = null;
@@ -233,6 +257,24 @@ public class ConfigurationFrame extends JFrame
         dispose();
     }
 
+    private void rollback(ActionEvent l) {
+        // a rollback is for one launch, so it is passed to a new launcher instead of being saved
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Launcher.class.getName());
+        command.add("--rollback");
+
+        try {
+            new ProcessBuilder(command).inheritIO().start();
+        } catch (IOException ex) {
+            log.error("unable to start the launcher to roll back", ex);
+        }
+
+        dispose();
+    }
+
     private static JLabel label(String name, String tooltip)
     {
         JLabel label = new JLabel(name);
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.launcher.beans.Artifact;
+import net.runelite.launcher.beans.Diff;
+
+/**
+ * Estimates how long each way of getting an artifact takes, so a diff is only used when it is faster
+ * than the full download. A diff is applied while it downloads, so it takes as long as the slower of
+ * downloading it and patching the artifact. The download rate is measured from previous full downloads, and
+ * the patch rate from the CPU time of previous patches and a benchmark of the inflate and deflate work
+ * patching is made of, which runs in the background. Measurements are kept in {@code costs.json}.
+ */
+@Slf4j
+class DiffCostModel
+{
+	private static final File COSTS_FILE = new File(Launcher.RUNELITE_DIR, "costs.json");
+
+	// assumed until a download has been measured, in bytes per second
+	private static final double DEFAULT_DOWNLOAD_RATE = 2 * 1024 * 1024;
+	// assumed until a patch or the benchmark has been measured, in bytes of patched artifact per second
+	private static final double DEFAULT_PATCH_RATE = 2 * 1024 * 1024;
+	// weight of a new measurement
+	private static final double ALPHA = .3;
+	// how long a benchmark result is used for before it is run again
+	private static final long CALIBRATION_AGE = TimeUnit.DAYS.toMillis(30);
+	private static final int CALIBRATION_SIZE = 4 * 1024 * 1024;
+
+	private static DiffCostModel shared;
+
+	private final Rates rates;
+	private boolean calibrating;
+
+	DiffCostModel(double downloadRate, double patchRate)
+	{
+		this(new Rates());
+		rates.downloadRate = downloadRate;
+		rates.patchRate = patchRate;
+		rates.calibrated = System.currentTimeMillis();
+	}
+
+	private DiffCostModel(Rates rates)
+	{
+		this.rates = rates;
+	}
+
+	static synchronized DiffCostModel shared()
+	{
+		if (shared == null)
+		{
+			shared = new DiffCostModel(load());
+		}
+		return shared;
+	}
+
+	/**
+	 * Choose the fastest way to get an artifact
+	 *
+	 * @param diffs the diffs which can be applied
+	 * @return the diff to apply, or null to download the full artifact
+	 */
+	Diff choose(Artifact artifact, List<Diff> diffs)
+	{
+		Diff best = null;
+		double bestTime = fullTime(artifact);
+		for (Diff diff : diffs)
+		{
+			double time = diffTime(artifact, diff);
+			if (time < bestTime)
+			{
+				best = diff;
+				bestTime = time;
+			}
+		}
+
+		if (best == null && !diffs.isEmpty())
+		{
+			log.debug("Downloading all of {} is faster than patching it", artifact.getName());
+		}
+		return best;
+	}
+
+	/**
+	 * @return the estimated time to download an artifact, in seconds
+	 */
+	double fullTime(Artifact artifact)
+	{
+		return artifact.getSize() / downloadRate();
+	}
+
+	/**
+	 * @return the estimated time to download and apply a diff, in seconds
+	 */
+	double diffTime(Artifact artifact, Diff diff)
+	{
+		return Math.max(diff.getSize() / downloadRate(), artifact.getSize() / patchRate());
+	}
+
+	/**
+	 * Record a full download. Diff and chunked downloads aren't recorded, since patching and copying local
+	 * data take part of their time, which would make the network look slower than it is.
+	 *
+	 * @param bytes size of the download
+	 * @param nanos time it took
+	 */
+	synchronized void recordDownload(long bytes, long nanos)
+	{
+		if (bytes > 0 && nanos > 0)
+		{
+			rates.downloadRate = average(rates.downloadRate, bytes * 1e9 / nanos);
+		}
+	}
+
+	/**
+	 * Record a patch which was applied
+	 *
+	 * @param bytes    size of the patched artifact
+	 * @param cpuNanos CPU time spent patching
+	 */
+	synchronized void recordPatch(long bytes, long cpuNanos)
+	{
+		if (bytes > 0 && cpuNanos > 0)
+		{
+			rates.patchRate = average(rates.patchRate, bytes * 1e9 / cpuNanos);
+		}
+	}
+
+	private synchronized double downloadRate()
+	{
+		return rates.downloadRate > 0 ? rates.downloadRate : DEFAULT_DOWNLOAD_RATE;
+	}
+
+	private synchronized double patchRate()
+	{
+		if (!calibrating && (rates.patchRate <= 0 || System.currentTimeMillis() - rates.calibrated > CALIBRATION_AGE))
+		{
+			// the benchmark takes a few hundred ms of CPU, which the launch doesn't wait on; the last rate, or
+			// an assumed one, is used until it is done
+			calibrating = true;
+			Thread thread = new Thread(this::recalibrate, "diff-calibrate");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			thread.start();
+		}
+		return rates.patchRate > 0 ? rates.patchRate : DEFAULT_PATCH_RATE;
+	}
+
+	private void recalibrate()
+	{
+		double measured = calibrate();
+		synchronized (this)
+		{
+			// measurements of real patches are better than the benchmark once there are some
+			rates.patchRate = rates.patchRate > 0 ? average(rates.patchRate, measured) : measured;
+			rates.calibrated = System.currentTimeMillis();
+			calibrating = false;
+		}
+	}
+
+	private static double average(double current, double measured)
+	{
+		return current > 0 ? current + ALPHA * (measured - current) : measured;
+	}
+
+	/**
+	 * Measure how fast this machine patches, in bytes of patched output per second. Applying a file by
+	 * file diff inflates the entries of the old archive, applies the delta and deflates the new entries
+	 * again, and the inflating and deflating dominates. This times the same work on compressible data. The
+	 * patched artifact is an archive of compressed entries, so the rate is of the compressed bytes, the
+	 * same unit as the rates measured from real patches.
+	 */
+	static double calibrate()
+	{
+		byte[] data = new byte[CALIBRATION_SIZE];
+		Random random = new Random(0);
+		// class files are repetitive, a small alphabet with runs compresses about as well
+		for (int i = 0; i < data.length; )
+		{
+			byte b = (byte) ('a' + random.nextInt(16));
+			int run = 1 + random.nextInt(8);
+			for (int j = 0; j < run && i < data.length; ++j)
+			{
+				data[i++] = b;
+			}
+		}
+
+		long start = System.nanoTime();
+		byte[] compressed = new byte[data.length + 1024];
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		Inflater inflater = new Inflater(true);
+		int length = 0;
+		try
+		{
+			deflater.setInput(data);
+			deflater.finish();
+			while (!deflater.finished())
+			{
+				length += deflater.deflate(compressed, length, compressed.length - length);
+			}
+
+			inflater.setInput(compressed, 0, length);
+			byte[] out = new byte[data.length];
+			int inflated = 0;
+			while (!inflater.finished() && inflated < out.length)
+			{
+				inflated += inflater.inflate(out, inflated, out.length - inflated);
+			}
+		}
+		catch (DataFormatException ex)
+		{
+			throw new IllegalStateException(ex);
+		}
+		finally
+		{
+			deflater.end();
+			inflater.end();
+		}
+
+		long nanos = Math.max(1, System.nanoTime() - start);
+		double rate = length * 1e9 / nanos;
+		log.debug("Calibrated patch rate: {} KB/s", (long) rate / 1024);
+		return rate;
+	}
+
+	private static Rates load()
+	{
+		try (Reader in = new InputStreamReader(new FileInputStream(COSTS_FILE), StandardCharsets.UTF_8))
+		{
+			Rates rates = new Gson().fromJson(in, Rates.class);
+			if (rates != null)
+			{
+				return rates;
+			}
+		}
+		catch (FileNotFoundException ex)
+		{
+			log.debug("no cost measurements");
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("unable to load cost measurements", ex);
+		}
+		return new Rates();
+	}
+
+	/**
+	 * Write the measurements to disk
+	 */
+	synchronized void save()
+	{
+		try
+		{
+			JsonFiles.writeJsonAtomically(COSTS_FILE, rates, Rates.class);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save cost measurements", ex);
+		}
+	}
+
+	private static class Rates
+	{
+		// bytes per second of one download
+		double downloadRate;
+		// bytes of patched artifact per second of CPU time
+		double patchRate;
+		// when the patch rate was last benchmarked
+		long calibrated;
+	}
+}
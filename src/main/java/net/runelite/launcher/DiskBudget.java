@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the artifacts of every client type within a disk budget. The generations which were launched
+ * least recently are evicted first, across all client types, so a client type which isn't used anymore
+ * goes before the older versions of the one which is. Generations share objects in the store, so a
+ * generation only counts for the objects no other kept generation uses.
+ */
+@Slf4j
+class DiskBudget
+{
+	private static final long MB = 1024 * 1024;
+
+	private DiskBudget()
+	{
+	}
+
+	private static class Candidate
+	{
+		Repository repository;
+		File generation;
+		Set<String> hashes;
+		long lastLaunched;
+	}
+
+	/**
+	 * Evict generations until the objects the kept generations use fit in the budget
+	 *
+	 * @param repositoriesDir the directory holding the repository of each client type
+	 * @param budget          the budget, in bytes
+	 * @param protect         generations which are running or about to be launched, which are never evicted
+	 */
+	static void enforce(File repositoriesDir, ArtifactStore store, long budget, Collection<File> protect)
+	{
+		File[] dirs = repositoriesDir.listFiles(File::isDirectory);
+		if (dirs == null)
+		{
+			return;
+		}
+
+		Set<File> protectedDirs = new HashSet<>();
+		for (File generation : protect)
+		{
+			protectedDirs.add(generation.getAbsoluteFile());
+		}
+
+		List<Candidate> candidates = new ArrayList<>();
+		Multiset<String> users = HashMultiset.create();
+		for (File dir : dirs)
+		{
+			Repository repository = new Repository(dir);
+			for (File generation : repository.getGenerations())
+			{
+				Candidate candidate = new Candidate();
+				candidate.repository = repository;
+				candidate.generation = generation;
+				candidate.hashes = repository.hashes(generation);
+				candidate.lastLaunched = repository.getLastLaunched(generation);
+				users.addAll(candidate.hashes);
+				if (!protectedDirs.contains(generation.getAbsoluteFile()))
+				{
+					candidates.add(candidate);
+				}
+			}
+		}
+
+		Map<String, Long> sizes = new HashMap<>();
+		long used = 0;
+		for (String hash : users.elementSet())
+		{
+			// diff bases of other platforms, and objects evicted earlier, aren't in the store
+			long size = store.file(hash).length();
+			sizes.put(hash, size);
+			used += size;
+		}
+
+		if (used <= budget)
+		{
+			log.debug("Artifacts use {} MB of the {} MB disk budget", used / MB, budget / MB);
+			return;
+		}
+
+		// pick the generations to evict first, so each repository is locked once
+		candidates.sort(Comparator.comparingLong(c -> c.lastLaunched));
+		Map<Repository, List<String>> evictions = new LinkedHashMap<>();
+		for (Candidate candidate : candidates)
+		{
+			if (used <= budget)
+			{
+				break;
+			}
+
+			for (String hash : candidate.hashes)
+			{
+				if (users.remove(hash, 1) == 1)
+				{
+					used -= sizes.get(hash);
+				}
+			}
+			evictions.computeIfAbsent(candidate.repository, k -> new ArrayList<>()).add(candidate.generation.getName());
+		}
+
+		if (used > budget)
+		{
+			log.warn("The protected generations alone use {} MB, which is over the {} MB disk budget", used / MB, budget / MB);
+		}
+
+		for (Map.Entry<Repository, List<String>> entry : evictions.entrySet())
+		{
+			Repository repository = entry.getKey();
+			// a sync in progress is left alone, the budget is checked again after the next sync
+			try (Closeable lock = repository.tryLock())
+			{
+				if (lock == null)
+				{
+					log.debug("{} is being synced, not evicting from it", repository.getRoot());
+					continue;
+				}
+
+				repository.evict(entry.getValue());
+				// the refs are named after the client type, which is the name of its repository
+				store.retain(repository.getRoot().getName(), repository.hashes());
+			}
+			catch (IOException ex)
+			{
+				log.warn("unable to evict from {}", repository.getRoot(), ex);
+			}
+		}
+	}
+}
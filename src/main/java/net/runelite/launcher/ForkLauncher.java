@@ -59,7 +59,7 @@ class ForkLauncher {
     }
 
     static void launch(Bootstrap bootstrap, List<File> classpath, Collection<String> clientArgs,
-                       Map<String, String> jvmProps, List<String> jvmArgs) throws IOException {
+                       Map<String, String> jvmProps, List<String> jvmArgs, String type) throws IOException {
         String command = System.getProperty("sun.java.command");
         Path path = Paths.get(command);
 
@@ -83,6 +83,22 @@ class ForkLauncher {
         // launcher vm args
         commands.addAll(jvmArgs);
 
+        // The forked launcher runs on this JVM and loads the client jars with its own class loader, so the
+        // archive is for both classpaths
+        List<File> sharedClasspath = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            sharedClasspath.add(new File(entry));
+        }
+        sharedClasspath.addAll(classpath);
+        List<String> vmArgs = new ArrayList<>(jvmArgs);
+        if (clientJvmArgs != null) {
+            vmArgs.addAll(Arrays.asList(clientJvmArgs));
+        }
+        for (String arg : ClassDataSharing.getArguments(new File(System.getProperty("java.home")), sharedClasspath, vmArgs)) {
+            commands.add("-J");
+            commands.add(arg);
+        }
+
         // program arguments
         commands.add("--");
 
@@ -97,15 +113,19 @@ class ForkLauncher {
             if (sb.length() > 0) {
                 sb.append(File.pathSeparatorChar);
             }
-            sb.append(f.getName());
+            // absolute, since the generation directory changes with each update
+            sb.append(f.getAbsolutePath());
         }
         commands.add(sb.toString());
+        commands.add("--client-type");
+        commands.add(type);
 
         commands.addAll(clientArgs);
 
         System.out.println("Running process: " + commands);
 
         ProcessBuilder builder = new ProcessBuilder(commands);
-        builder.start();
+        Process process = builder.start();
+        BandwidthLimiter.shared().clientStarted(process);
     }
 }
\ No newline at end of file
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An on-disk index of file hashes keyed by path, size, modification time and file key. Files whose
+ * attributes are unchanged since they were last hashed are not hashed again until the full
+ * verification interval has passed.
+ */
+@Slf4j
+class HashIndex
+{
+	private static final Type INDEX_TYPE = new TypeToken<Map<String, Entry>>()
+	{
+	}.getType();
+
+	private final File indexFile;
+	private final long verifyInterval;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private WatchService watchService;
+	private final Set<Path> watched = new HashSet<>();
+
+	private HashIndex(File indexFile, long verifyInterval)
+	{
+		this.indexFile = indexFile;
+		this.verifyInterval = verifyInterval;
+	}
+
+	/**
+	 * Load the index from disk
+	 *
+	 * @param indexFile      index file
+	 * @param verifyInterval how long a stored hash is trusted before the file is fully hashed again, in ms
+	 * @return the index
+	 */
+	static HashIndex load(File indexFile, long verifyInterval)
+	{
+		HashIndex index = new HashIndex(indexFile, verifyInterval);
+		try (Reader in = new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8))
+		{
+			Map<String, Entry> entries = new Gson().fromJson(in, INDEX_TYPE);
+			if (entries != null)
+			{
+				index.entries.putAll(entries);
+			}
+		}
+		catch (FileNotFoundException ex)
+		{
+			log.debug("hash index does not exist");
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("unable to load hash index", ex);
+		}
+		return index;
+	}
+
+	/**
+	 * Get the sha-256 of a file, either from the index or by hashing it
+	 */
+	String hash(File file) throws IOException
+	{
+		Path path = file.toPath();
+		String key = file.getAbsolutePath();
+
+		BasicFileAttributes before = stat(path);
+		Entry entry = entries.get(key);
+		if (entry != null && entry.matches(before)
+			&& System.currentTimeMillis() - entry.verified < verifyInterval)
+		{
+			return entry.hash;
+		}
+
+		String hash = HashService.sha256(file);
+
+		// only record the hash if the file didn't change while it was being hashed
+		BasicFileAttributes after = stat(path);
+		if (Entry.of(before, hash, 0).matches(after))
+		{
+			entries.put(key, Entry.of(after, hash, System.currentTimeMillis()));
+		}
+		else
+		{
+			entries.remove(key);
+		}
+		return hash;
+	}
+
+	/**
+	 * Get the sha-256 of several files, hashing the ones which aren't in the index in parallel
+	 *
+	 * @return the hash of each file, or null for files which don't exist or can't be read
+	 */
+	Map<File, String> hashAll(Collection<File> files)
+	{
+		return HashService.hashAll(files, this::hash);
+	}
+
+	/**
+	 * Record the hash of a file which was just written and verified
+	 */
+	void put(File file, String hash)
+	{
+		try
+		{
+			entries.put(file.getAbsolutePath(), Entry.of(stat(file.toPath()), hash, System.currentTimeMillis()));
+		}
+		catch (IOException ex)
+		{
+			log.debug("unable to stat {}", file, ex);
+			entries.remove(file.getAbsolutePath());
+		}
+	}
+
+	/**
+	 * Watch a directory for changes made by something other than the launcher, for as long as the
+	 * launcher is running.
+	 */
+	synchronized void watch(File directory)
+	{
+		Path dir = directory.toPath().toAbsolutePath();
+		if (watched.contains(dir))
+		{
+			return;
+		}
+
+		try
+		{
+			if (watchService == null)
+			{
+				watchService = FileSystems.getDefault().newWatchService();
+				Thread thread = new Thread(this::processEvents, "hash-index-watcher");
+				thread.setDaemon(true);
+				thread.start();
+			}
+
+			dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+				StandardWatchEventKinds.ENTRY_DELETE);
+			watched.add(dir);
+		}
+		catch (IOException ex)
+		{
+			log.debug("unable to watch {}", dir, ex);
+		}
+	}
+
+	private void processEvents()
+	{
+		try
+		{
+			for (;;)
+			{
+				WatchKey key = watchService.take();
+				long seen = System.currentTimeMillis();
+				Path dir = (Path) key.watchable();
+				for (WatchEvent<?> event : key.pollEvents())
+				{
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+					{
+						// events were lost, so nothing in this directory can be trusted
+						String prefix = dir.toString() + File.separator;
+						entries.keySet().removeIf(path -> path.startsWith(prefix));
+						continue;
+					}
+
+					// Entries recorded after the event was seen already describe the new contents. Anything older
+					// is dropped, at worst costing a hash of a file the launcher wrote itself.
+					String path = dir.resolve((Path) event.context()).toString();
+					entries.computeIfPresent(path, (k, entry) -> entry.recorded >= seen ? entry : null);
+				}
+				key.reset();
+			}
+		}
+		catch (InterruptedException | ClosedWatchServiceException ex)
+		{
+			log.debug("hash index watcher stopped", ex);
+		}
+	}
+
+	/**
+	 * Write the index to disk, dropping entries for files which no longer exist
+	 */
+	void save()
+	{
+		entries.keySet().removeIf(path -> !new File(path).isFile());
+
+		try
+		{
+			JsonFiles.writeJsonAtomically(indexFile, entries, INDEX_TYPE);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save hash index", ex);
+		}
+	}
+
+	private static BasicFileAttributes stat(Path path) throws IOException
+	{
+		try
+		{
+			return Files.readAttributes(path, BasicFileAttributes.class);
+		}
+		catch (NoSuchFileException ex)
+		{
+			throw new FileNotFoundException(path.toString());
+		}
+	}
+
+	private static class Entry
+	{
+		long size;
+		long mtime;
+		String fileKey;
+		String hash;
+		// when the file was last fully hashed
+		long verified;
+		// when this entry was recorded
+		long recorded;
+
+		static Entry of(BasicFileAttributes attrs, String hash, long verified)
+		{
+			Entry entry = new Entry();
+			entry.size = attrs.size();
+			entry.mtime = attrs.lastModifiedTime().toMillis();
+			entry.fileKey = attrs.fileKey() != null ? attrs.fileKey().toString() : null;
+			entry.hash = hash;
+			entry.verified = verified;
+			entry.recorded = System.currentTimeMillis();
+			return entry;
+		}
+
+		boolean matches(BasicFileAttributes attrs)
+		{
+			return size == attrs.size()
+				&& mtime == attrs.lastModifiedTime().toMillis()
+				&& Objects.equals(fileKey, attrs.fileKey() != null ? attrs.fileKey().toString() : null);
+		}
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.hash.HashCode;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Computes sha-256 hashes of files. Files are read through {@link FileChannel#map} in fixed size windows,
+ * so large files such as the JRE zip are never buffered whole, and many files can be hashed at once on a
+ * pool sized to the machine.
+ */
+@Slf4j
+class HashService
+{
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+	private static final int MAP_WINDOW = 16 * 1024 * 1024;
+	private static final int READ_BUFFER = 1024 * 1024;
+
+	// A mapped file can't be deleted or replaced on Windows until the mapping is garbage collected, and files
+	// are replaced right after they are hashed, so read into a direct buffer there instead.
+	private static final boolean MAP = OS.getOs() != OS.OSType.Windows;
+
+	private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(READ_BUFFER));
+
+	private static final ExecutorService executor = Executors.newFixedThreadPool(THREADS, new ThreadFactoryBuilder()
+		.setNameFormat("hash-%d")
+		.setDaemon(true)
+		.build());
+
+	/**
+	 * Hash a file on the calling thread
+	 *
+	 * @return the lowercase hex sha-256 of the file
+	 */
+	static String sha256(File file) throws IOException
+	{
+		MessageDigest digest = newDigest();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			if (MAP)
+			{
+				long size = channel.size();
+				for (long position = 0; position < size; position += MAP_WINDOW)
+				{
+					MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW, size - position));
+					digest.update(window);
+				}
+			}
+			else
+			{
+				ByteBuffer buffer = BUFFERS.get();
+				buffer.clear();
+				while (channel.read(buffer) != -1)
+				{
+					buffer.flip();
+					digest.update(buffer);
+					buffer.clear();
+				}
+			}
+		}
+		return HashCode.fromBytes(digest.digest()).toString();
+	}
+
+	/**
+	 * Run a hash function over several files in parallel on the hash pool
+	 *
+	 * @param files files to hash
+	 * @param hasher hash function, either {@link #sha256(File)} or a caching wrapper around it
+	 * @return the hash of each file, or null for the files which could not be read
+	 */
+	static Map<File, String> hashAll(Collection<File> files, Hasher hasher)
+	{
+		List<CompletableFuture<String>> futures = new ArrayList<>(files.size());
+		for (File file : files)
+		{
+			futures.add(CompletableFuture.supplyAsync(() ->
+			{
+				try
+				{
+					return hasher.hash(file);
+				}
+				catch (IOException ex)
+				{
+					throw new UncheckedIOException(ex);
+				}
+			}, executor));
+		}
+
+		Map<File, String> hashes = new LinkedHashMap<>();
+		int i = 0;
+		for (File file : files)
+		{
+			String hash;
+			try
+			{
+				hash = futures.get(i++).join();
+			}
+			catch (CompletionException ex)
+			{
+				log.debug("unable to hash {}", file, ex.getCause());
+				hash = null;
+			}
+			hashes.put(file, hash);
+		}
+		return hashes;
+	}
+
+	private static MessageDigest newDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex)
+		{
+			throw new RuntimeException(ex);
+		}
+	}
+
+	@FunctionalInterface
+	interface Hasher
+	{
+		String hash(File file) throws IOException;
+	}
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An on-disk cache of small HTTP resources such as the client manifest and bootstraps. Responses are
+ * stored with their validators and revalidated with {@code If-None-Match} and {@code If-Modified-Since},
+ * and responses which are still fresh per {@code Cache-Control: max-age} are served without a request.
+ */
+@Slf4j
+class HttpCache
+{
+	private final File dir;
+	private final HttpRequestManager http;
+
+	HttpCache(File dir, HttpRequestManager http)
+	{
+		this.dir = dir;
+		this.http = http;
+	}
+
+	/**
+	 * Get a url, revalidating the cached copy if there is one
+	 */
+	CompletableFuture<Response> getAsync(String url)
+	{
+		Entry entry = read(url);
+		if (entry != null && entry.meta.isFresh())
+		{
+			log.debug("Using fresh cached copy of {}", url);
+			return CompletableFuture.completedFuture(new Response(entry.body, true));
+		}
+
+		Map<String, String> headers = new HashMap<>();
+		if (entry != null)
+		{
+			if (entry.meta.etag != null)
+			{
+				headers.put("If-None-Match", entry.meta.etag);
+			}
+			if (entry.meta.lastModified != null)
+			{
+				headers.put("If-Modified-Since", entry.meta.lastModified);
+			}
+		}
+
+		return http.fetchMirroredAsync(url, headers, conn ->
+		{
+			if (entry != null && conn.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED)
+			{
+				log.debug("{} not modified", url);
+				Meta meta = Meta.of(conn, url, entry.meta.sha256);
+				// keep validators the 304 didn't repeat
+				meta.etag = meta.etag != null ? meta.etag : entry.meta.etag;
+				meta.lastModified = meta.lastModified != null ? meta.lastModified : entry.meta.lastModified;
+				writeMeta(url, meta);
+				return new Response(entry.body, true);
+			}
+
+			HttpRequestManager.checkStatus(conn, url);
+			byte[] body;
+			try (InputStream in = conn.getInputStream())
+			{
+				body = ByteStreams.toByteArray(in);
+			}
+
+			Meta meta = Meta.of(conn, url, Hashing.sha256().hashBytes(body).toString());
+			if (meta.noStore)
+			{
+				delete(url);
+			}
+			else
+			{
+				write(url, body, meta);
+			}
+			return new Response(body, false);
+		});
+	}
+
+	/**
+	 * Get the cached copy of a url without going to the network
+	 *
+	 * @return the cached body, or null if there isn't one
+	 */
+	byte[] getCached(String url)
+	{
+		Entry entry = read(url);
+		return entry != null ? entry.body : null;
+	}
+
+	private Entry read(String url)
+	{
+		Meta meta;
+		try (Reader in = new InputStreamReader(new FileInputStream(metaFile(url)), StandardCharsets.UTF_8))
+		{
+			meta = new Gson().fromJson(in, Meta.class);
+		}
+		catch (FileNotFoundException ex)
+		{
+			return null;
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.debug("unable to read cache entry for {}", url, ex);
+			return null;
+		}
+
+		if (meta == null || !url.equals(meta.url))
+		{
+			return null;
+		}
+
+		byte[] body;
+		try
+		{
+			body = Files.readAllBytes(bodyFile(url).toPath());
+		}
+		catch (IOException ex)
+		{
+			return null;
+		}
+
+		// the body and meta are written separately, so make sure they go together
+		if (!Hashing.sha256().hashBytes(body).toString().equals(meta.sha256))
+		{
+			log.debug("cached body of {} does not match", url);
+			return null;
+		}
+
+		Entry entry = new Entry();
+		entry.meta = meta;
+		entry.body = body;
+		return entry;
+	}
+
+	private void write(String url, byte[] body, Meta meta)
+	{
+		try
+		{
+			mkdirs();
+			File tmp = File.createTempFile("body", ".tmp", dir);
+			Files.write(tmp.toPath(), body);
+			move(tmp, bodyFile(url));
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to cache {}", url, ex);
+			return;
+		}
+
+		writeMeta(url, meta);
+	}
+
+	private void writeMeta(String url, Meta meta)
+	{
+		try
+		{
+			mkdirs();
+			File tmp = File.createTempFile("meta", ".tmp", dir);
+			try (Writer out = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))
+			{
+				new Gson().toJson(meta, out);
+			}
+			move(tmp, metaFile(url));
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to cache {}", url, ex);
+		}
+	}
+
+	private void delete(String url)
+	{
+		metaFile(url).delete();
+		bodyFile(url).delete();
+	}
+
+	private File metaFile(String url)
+	{
+		return new File(dir, key(url) + ".json");
+	}
+
+	private File bodyFile(String url)
+	{
+		return new File(dir, key(url) + ".body");
+	}
+
+	private static String key(String url)
+	{
+		return Hashing.sha256().hashString(url, StandardCharsets.UTF_8).toString().substring(0, 32);
+	}
+
+	private void mkdirs() throws IOException
+	{
+		if (!dir.exists() && !dir.mkdirs() && !dir.isDirectory())
+		{
+			throw new IOException("unable to create cache directory " + dir);
+		}
+	}
+
+	private static void move(File from, File to) throws IOException
+	{
+		try
+		{
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex)
+		{
+			log.debug("atomic move not supported", ex);
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	static class Response
+	{
+		final byte[] body;
+		// true if the body is the same as the cached copy from before the request
+		final boolean notModified;
+
+		Response(byte[] body, boolean notModified)
+		{
+			this.body = body;
+			this.notModified = notModified;
+		}
+	}
+
+	private static class Entry
+	{
+		Meta meta;
+		byte[] body;
+	}
+
+	private static class Meta
+	{
+		String url;
+		String sha256;
+		String etag;
+		String lastModified;
+		// when the response was received or last revalidated
+		long fetched;
+		// seconds, or -1 if the response has no max-age
+		long maxAge = -1;
+		transient boolean noStore;
+
+		static Meta of(HttpURLConnection conn, String url, String sha256)
+		{
+			Meta meta = new Meta();
+			meta.url = url;
+			meta.sha256 = sha256;
+			meta.etag = conn.getHeaderField("ETag");
+			meta.lastModified = conn.getHeaderField("Last-Modified");
+			meta.fetched = System.currentTimeMillis();
+
+			String cacheControl = conn.getHeaderField("Cache-Control");
+			if (cacheControl != null)
+			{
+				for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(","))
+				{
+					directive = directive.trim();
+					if (directive.equals("no-store"))
+					{
+						meta.noStore = true;
+					}
+					else if (directive.equals("no-cache"))
+					{
+						meta.maxAge = 0;
+					}
+					else if (directive.startsWith("max-age=") && meta.maxAge != 0)
+					{
+						try
+						{
+							meta.maxAge = Long.parseLong(directive.substring("max-age=".length()));
+						}
+						catch (NumberFormatException ignored)
+						{
+						}
+					}
+				}
+			}
+			return meta;
+		}
+
+		boolean isFresh()
+		{
+			return maxAge > 0 && System.currentTimeMillis() - fetched < TimeUnit.SECONDS.toMillis(maxAge);
+		}
+	}
+}
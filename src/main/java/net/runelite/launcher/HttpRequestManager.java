@@ -1,59 +1,219 @@
 package net.runelite.launcher;
 
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
 
-import static com.google.common.net.HttpHeaders.USER_AGENT;
-
+/**
+ * The HTTP transport shared by every fetch the launcher makes. Connections are kept alive and reused
+ * from the JRE's connection cache, which requires reading each response to the end and closing it
+ * instead of calling {@link HttpURLConnection#disconnect()}. TLS sessions are reused through the shared
+ * default SSL context. HTTP/2 is not available from {@link HttpURLConnection}.
+ */
+@Slf4j
 public class HttpRequestManager {
-    private static final String USER_AGENT = "Mozilla/5.0"; // Example User-Agent
+    // idle connections kept per host, the JRE default is 5
+    private static final int MAX_CONNECTIONS = 8;
 
-    byte[] sendGet(String url) throws IOException {
-        HttpURLConnection connection = null;
-        InputStream inputStream = null;
-        try {
+    private static final HttpRequestManager INSTANCE = new HttpRequestManager();
 
-            URL urlObj = new URL(url);
-            connection = (HttpURLConnection) urlObj.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setRequestProperty("User-Agent", USER_AGENT);
+    private volatile int connectTimeout = (int) TimeUnit.SECONDS.toMillis(10);
+    private volatile int readTimeout = (int) TimeUnit.SECONDS.toMillis(30);
 
-            int responseCode = connection.getResponseCode();
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                inputStream = connection.getInputStream();
-                return readFully(inputStream);
-            } else {
-                System.err.println("HTTP request failed with status code: " + responseCode);
-                // Print response body if available
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getErrorStream()))) {
-                    String line;
-                    System.err.println("Response body:");
-                    while ((line = reader.readLine()) != null) {
-                        System.err.println(line);
+    static {
+        if (System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections", Integer.toString(MAX_CONNECTIONS));
+        }
+    }
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(MAX_CONNECTIONS, new ThreadFactoryBuilder()
+            .setNameFormat("http-%d")
+            .setDaemon(true)
+            .build());
+
+    static HttpRequestManager shared() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param connectTimeout connect timeout, in ms
+     * @param readTimeout    the longest a read may wait for data, in ms
+     */
+    void configure(int connectTimeout, int readTimeout) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Reads the response of a request. The handler doesn't need to close the response stream.
+     */
+    @FunctionalInterface
+    interface ResponseHandler<T> {
+        T handle(HttpURLConnection connection) throws IOException;
+    }
+
+    /**
+     * Make a GET request on the calling thread
+     *
+     * @param url     url
+     * @param headers extra request headers
+     * @param handler reads the response
+     * @return the result of the handler
+     */
+    <T> T fetch(String url, Map<String, String> headers, ResponseHandler<T> handler) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod("GET");
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setRequestProperty("User-Agent", Launcher.USER_AGENT);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            connection.setRequestProperty(header.getKey(), header.getValue());
+        }
+
+        try {
+            connection.getResponseCode();
+            return handler.handle(connection);
+        } finally {
+            release(connection);
+        }
+    }
+
+    /**
+     * Make a GET request, failing over to the next best mirror of the url's host if the request fails,
+     * and retrying with backoff once every mirror has failed. The handler may be called again for another
+     * mirror, so it must not have side effects which a failed response leaves behind.
+     */
+    <T> T fetchMirrored(String url, Map<String, String> headers, ResponseHandler<T> handler) throws IOException {
+        return RetryPolicy.run(url, () -> {
+            List<String> candidates = Mirrors.shared().candidates(url);
+            for (int i = 0; ; ++i) {
+                String candidate = candidates.get(i);
+                try {
+                    return fetch(candidate, headers, handler);
+                } catch (IOException ex) {
+                    if (i + 1 >= candidates.size() || ex instanceof DownloadStoppedException) {
+                        throw ex;
                     }
-                } catch (IOException e) {
-                    e.printStackTrace();
+                    Mirrors.shared().failed(candidate);
+                    log.warn("Request to {} failed, trying {}", candidate, candidates.get(i + 1), ex);
                 }
-                throw new IOException("HTTP request failed with status code: " + responseCode);
             }
-        } finally {
-            if (inputStream != null) {
-                inputStream.close();
+        });
+    }
+
+    /**
+     * Make a GET request on the transport's threads, with failover to mirrors
+     */
+    <T> CompletableFuture<T> fetchMirroredAsync(String url, Map<String, String> headers, ResponseHandler<T> handler) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return fetchMirrored(url, headers, handler);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-            if (connection != null) {
-                connection.disconnect();
+        }, executor);
+    }
+
+    /**
+     * Make a GET request on the transport's threads
+     */
+    <T> CompletableFuture<T> fetchAsync(String url, Map<String, String> headers, ResponseHandler<T> handler) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return fetch(url, headers, handler);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Fetch the body of a url
+     */
+    CompletableFuture<byte[]> sendGetAsync(String url) {
+        return fetchMirroredAsync(url, Collections.emptyMap(), connection -> {
+            checkStatus(connection, url);
+            try (InputStream in = connection.getInputStream()) {
+                return ByteStreams.toByteArray(in);
+            }
+        });
+    }
+
+    byte[] sendGet(String url) throws IOException {
+        return join(sendGetAsync(url));
+    }
+
+    /**
+     * Wait for a request, rethrowing the IOException it failed with
+     */
+    static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) ex.getCause()).getCause();
             }
+            throw ex;
         }
     }
 
-    private byte[] readFully(InputStream inputStream) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        byte[] buffer = new byte[4096];
-        int bytesRead;
-        while ((bytesRead = inputStream.read(buffer)) != -1) {
-            outputStream.write(buffer, 0, bytesRead);
+    /**
+     * Throw if the response is an error
+     */
+    static void checkStatus(HttpURLConnection connection, String url) throws IOException {
+        if (connection.getErrorStream() != null) {
+            int status = connection.getResponseCode();
+            log.debug("Request for {} failed with status code {}", url, status);
+            throw new HttpStatusException("Unable to download " + url + " - " + connection.getResponseMessage(),
+                    status, retryAfter(connection));
+        }
+    }
+
+    /**
+     * Get the Retry-After of a response, in ms from now
+     *
+     * @return the delay, or -1 if there is none
+     */
+    private static long retryAfter(HttpURLConnection connection) {
+        String value = connection.getHeaderField("Retry-After");
+        if (value == null) {
+            return -1;
+        }
+
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()));
+        } catch (NumberFormatException ex) {
+            // an http date
+            long date = connection.getHeaderFieldDate("Retry-After", -1);
+            return date == -1 ? -1 : Math.max(0, date - System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Close the response so the connection goes back to the keep-alive cache. The JRE skips over a small
+     * unread remainder itself, and closes the socket if too much is left.
+     */
+    private static void release(HttpURLConnection connection) {
+        try {
+            InputStream err = connection.getErrorStream();
+            if (err != null) {
+                err.close();
+            } else {
+                connection.getInputStream().close();
+            }
+        } catch (IOException ex) {
+            log.debug("error closing response", ex);
         }
-        return outputStream.toByteArray();
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,8 @@
 package net.runelite.launcher;
 
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.security.MessageDigest;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -134,55 +131,34 @@ public class JavaInstaller {
     }
 
     private static File downloadFile(String fileURL, String expectedChecksum) throws IOException {
-        URL url = new URL(fileURL);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod("GET");
-        int responseCode = connection.getResponseCode();
-        if (responseCode == HttpURLConnection.HTTP_OK) {
-            int contentLength = connection.getContentLength();
-            InputStream inputStream = connection.getInputStream();
-            File tempFile = new File(SAVE_LOC,"java.zip");
-            FileOutputStream outputStream = new FileOutputStream(tempFile);
-            byte[] buffer = new byte[1024];
-            int bytesRead;
-            long totalBytesRead = 0;
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, bytesRead);
-                totalBytesRead += bytesRead;
-                int progress = (int) ((totalBytesRead * 100) / contentLength);
+        File javaFile = new File(SAVE_LOC,"java.zip");
+        ResumableDownload download = new ResumableDownload(fileURL, expectedChecksum.toLowerCase(), javaFile);
+        download.progress((completed) -> {
+            long contentLength = download.getContentLength();
+            if (contentLength > 0) {
+                int progress = (int) ((completed * 100L) / contentLength);
                 stage((double) progress / 100, progress + "%", "Downloading Java");
             }
-            outputStream.close();
-            inputStream.close();
-
-            // Verify checksum
-            if (!verifyChecksum(tempFile, expectedChecksum)) {
-                stage(0,"Checksum verification failed.", "Deleting the downloaded file.");
-                tempFile.delete();
-                FatalErrorDialog.showWindow("Checksum verification failed.");
-                throw new IOException("Checksum verification failed.");
-            }
+        });
 
-            // Rename the file
-            File javaFile = new File(SAVE_LOC,"java.zip");
-            tempFile.renameTo(javaFile);
-            return javaFile;
-        } else {
-            FatalErrorDialog.showWindow("Failed to download file. HTTP error code: " + responseCode);
-            throw new IOException("Failed to download file. HTTP error code: " + responseCode);
+        try {
+            download.download();
+        } catch (VerificationException e) {
+            stage(0,"Checksum verification failed.", "Deleting the downloaded file.");
+            javaFile.delete();
+            FatalErrorDialog.showWindow("Checksum verification failed.");
+            throw new IOException("Checksum verification failed.", e);
+        } catch (IOException e) {
+            FatalErrorDialog.showWindow("Failed to download file. " + e.getMessage());
+            throw e;
         }
+
+        return javaFile;
     }
 
     private static boolean verifyChecksum(File file, String expectedChecksum) throws IOException {
-        try (FileInputStream fis = new FileInputStream(file)) {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] buffer = new byte[1024];
-            int bytesRead;
-            while ((bytesRead = fis.read(buffer)) != -1) {
-                md.update(buffer, 0, bytesRead);
-            }
-            byte[] digest = md.digest();
-            String actualChecksum = bytesToHex(digest).toLowerCase();
+        try {
+            String actualChecksum = HashService.sha256(file);
             return actualChecksum.equals(expectedChecksum.toLowerCase());
         } catch (Exception e) {
             e.printStackTrace();
@@ -191,15 +167,6 @@ public class JavaInstaller {
     }
 
 
-    private static String bytesToHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02x", b));
-        }
-        return sb.toString();
-    }
-
-
     private static void unzip(File zipFile, File destDir) throws IOException {
         try (ZipInputStream zipInputStream = new ZipInputStream(new FileInputStream(zipFile))) {
             long totalSize = zipFile.length();
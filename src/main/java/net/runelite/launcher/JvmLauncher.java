@@ -46,6 +46,23 @@ class JvmLauncher
 	private static final Logger logger = LoggerFactory.getLogger(JvmLauncher.class);
 
 	private static String getJava() throws FileNotFoundException
+	{
+		String probe = "java-executable " + (Launcher.forcedJava.isEmpty() ? System.getProperty("java.home") : Launcher.forcedJava);
+		ProbeCache probes = ProbeCache.shared();
+		String cached = probes.peek(probe, String.class);
+		if (cached != null && Files.isRegularFile(Paths.get(cached)))
+		{
+			probes.saved(probe);
+			return cached;
+		}
+
+		long start = System.nanoTime();
+		String java = findJava();
+		probes.put(probe, java, System.nanoTime() - start);
+		return java;
+	}
+
+	private static String findJava() throws FileNotFoundException
 	{
 		Path javaHome = Paths.get(System.getProperty("java.home"));
 
@@ -102,6 +119,7 @@ class JvmLauncher
 			logger.error("Unable to find java executable", ex);
 			return;
 		}
+		ProbeCache.shared().save();
 
 		List<String> arguments = new ArrayList<>();
 		arguments.add(javaExePath);
@@ -118,6 +136,9 @@ class JvmLauncher
 			arguments.add("-D" + entry.getKey() + "=" + entry.getValue());
 		}
 		arguments.addAll(jvmArgs);
+		// java is in the bin directory of the JVM's home
+		File javaHome = new File(javaExePath).getParentFile().getParentFile();
+		arguments.addAll(ClassDataSharing.getArguments(javaHome, classpath, arguments));
 
 		arguments.add(Launcher.clientTypes.get(type).getMain());
 		arguments.addAll(clientArgs);
@@ -127,6 +148,7 @@ class JvmLauncher
 		ProcessBuilder builder = new ProcessBuilder(arguments.toArray(new String[0]));
 		builder.inheritIO();
 		Process process = builder.start();
+		BandwidthLimiter.shared().clientStarted(process);
 
 		if (log.isDebugEnabled())
 		{
@@ -26,25 +26,23 @@ package net.runelite.launcher;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
-import com.google.archivepatcher.applier.FileByFileV1DeltaApplier;
-import com.google.archivepatcher.shared.DefaultDeflateCompatibilityWindow;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.Streams;
 import com.google.common.hash.HashCode;
-import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
 import com.google.common.hash.HashingOutputStream;
 import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 
 import java.io.*;
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
-import java.net.HttpURLConnection;
 import java.net.URI;
-import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -56,19 +54,25 @@ import java.security.cert.CertificateFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Properties;
-import java.util.Set;
-import java.util.function.IntConsumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPInputStream;
 import javax.annotation.Nullable;
 import javax.swing.*;
 
@@ -84,16 +88,32 @@ import org.slf4j.LoggerFactory;
 @Slf4j
 public class Launcher
 {
-	private static final File RUNELITE_DIR = new File(System.getProperty("user.home"), "." + LauncherProperties.getApplicationName());
+	static final File RUNELITE_DIR = new File(System.getProperty("user.home"), "." + LauncherProperties.getApplicationName());
 	public static final File LOGS_DIR = new File(RUNELITE_DIR, "logs");
 	public static final File CRASH_FILES = new File(LOGS_DIR, "jvm_crash_pid_%p.log");
-	private static final String USER_AGENT = LauncherProperties.getApplicationName() + "/" + LauncherProperties.getVersion();
+	static final String USER_AGENT = LauncherProperties.getApplicationName() + "/" + LauncherProperties.getVersion();
 	static final String LAUNCHER_EXECUTABLE_NAME_WIN = LauncherProperties.getApplicationName() + ".exe";
 	static final String LAUNCHER_EXECUTABLE_NAME_OSX = LauncherProperties.getApplicationName();
 	public static String forcedJava = "";
 
 	static HashMap<String, ClientType> clientTypes = new HashMap<>();
 
+	private static ArtifactStore artifactStore;
+
+	private static final File HTTP_CACHE_DIR = new File(RUNELITE_DIR, "cache");
+	private static final HttpCache httpCache = new HttpCache(HTTP_CACHE_DIR, HttpRequestManager.shared());
+	// bootstraps whose signature has been verified by this process, by type
+	private static final Map<String, VerifiedBootstrap> verifiedBootstraps = new ConcurrentHashMap<>();
+
+	// work started while the client chooser is shown, by type
+	private static final Map<String, CompletableFuture<Bootstrap>> prefetchedBootstraps = new ConcurrentHashMap<>();
+	private static final Map<String, CompletableFuture<File>> presyncs = new ConcurrentHashMap<>();
+
+	// set when launching from cached data, either by choice or because the network is unavailable
+	static volatile boolean offline;
+	// seconds to wait on the network before falling back to cached data
+	private static int offlineTimeout;
+
 	public static boolean displayMultipleOptions = false;
 
 	public static void main(String[] args)
@@ -103,11 +123,20 @@ public class Launcher
 		parser.accepts("postinstall", "Perform post-install tasks");
 		parser.accepts("debug", "Enable debug logging");
 		parser.accepts("nodiff", "Always download full artifacts instead of diffs");
+		parser.accepts("verify", "Fully re-hash all artifacts instead of trusting the hash index");
 		parser.accepts("insecure-skip-tls-verification", "Disable TLS certificate and hostname verification");
 		parser.accepts("scale", "Custom scale factor for Java 2D").withRequiredArg();
 		parser.accepts("noupdate", "Skips the launcher self-update");
+		parser.accepts("offline", "Launch from the last verified client without using the network");
+		parser.accepts("quick-launch", "Start the last downloaded client right away and update in the background");
+		parser.accepts("rollback", "Launch the client version before the latest one without using the network");
+		parser.accepts("download-limit", "Limit the download rate, in KB/s").withRequiredArg().ofType(Integer.class);
+		parser.accepts("download-backoff", "Download slower while a client is running");
+		parser.accepts("sync-daemon", "Keep running and download new client versions ahead of time instead of launching");
+		parser.accepts("sync-window", "When the sync daemon may download, as HH:mm-HH:mm").withRequiredArg();
 		parser.accepts("help", "Show this text (use -- --help for client help)").forHelp();
 		parser.accepts("classpath", "Classpath for the client").withRequiredArg();
+		parser.accepts("client-type", "Client type the classpath is for").withRequiredArg();
 		parser.accepts("J", "JVM argument (FORK or JVM launch mode only)").withRequiredArg();
 		parser.accepts("configure", "Opens configuration GUI");
 		parser.accepts("launch-mode", "JVM launch method (JVM, FORK, REFLECT)")
@@ -164,6 +193,17 @@ public class Launcher
 
 		final boolean postInstall = options.has("postinstall");
 
+		// a rollback launches a generation which is already on disk, so it never needs the network
+		offline = settings.offline || settings.rollback;
+		offlineTimeout = settings.offlineTimeout;
+		BandwidthLimiter.shared().configure(settings.downloadLimitKb, settings.downloadBackoff);
+		Mirrors.shared().add(settings.mirrors);
+		HttpRequestManager.shared().configure((int) TimeUnit.SECONDS.toMillis(settings.connectTimeout),
+				(int) TimeUnit.SECONDS.toMillis(settings.readTimeout));
+		StallDetector.configure(settings.stallRateKb * 1024L);
+		RetryPolicy.configure(settings.retryAttempts);
+		Repository.configure(settings.keepGenerations);
+
 		// Setup logging
 		LOGS_DIR.mkdirs();
 		if (settings.isDebug())
@@ -185,19 +225,24 @@ public class Launcher
 			{
 				TrustManagerUtil.setupTrustManager();
 
-				String clientName = clientTypes.entrySet().stream().findAny().get().getValue().getName();
+				String clientName = options.has("client-type")
+						? String.valueOf(options.valueOf("client-type"))
+						: clientTypes.entrySet().stream().findAny().get().getValue().getName();
 
 				File location = new File(RUNELITE_DIR, "repository/" + clientName + "/");
 
 				// being called from ForkLauncher. All JVM options are already set.
+				// The classpath is absolute paths into the current generation, or names relative to the repository from older launchers.
 				String classpathOpt = String.valueOf(options.valueOf("classpath"));
 				List<File> classpath = Streams.stream(Splitter.on(File.pathSeparatorChar)
 								.split(classpathOpt))
-						.map(name -> new File(location, name))
+						.map(name -> new File(name).isAbsolute() ? new File(name) : new File(location, name))
 						.collect(Collectors.toList());
+				// this process is the client now, launchers started while it runs should back off
+				BandwidthLimiter.markClientRunning();
 				try
 				{
-					ReflectionLauncher.launch(classpath, getClientArgs(settings),clientTypes.entrySet().stream().findAny().get().getValue().getName());
+					ReflectionLauncher.launch(classpath, getClientArgs(settings), clientName);
 				}
 				catch (Exception e)
 				{
@@ -206,6 +251,22 @@ public class Launcher
 				return;
 			}
 
+			if (options.has("sync-daemon"))
+			{
+				log.info("Launcher configuration:" + System.lineSeparator() + "{}", settings.configurationStr());
+				if (settings.isSkipTlsVerification())
+				{
+					TrustManagerUtil.setupInsecureTrustManager();
+				}
+				else
+				{
+					TrustManagerUtil.setupTrustManager();
+				}
+
+				new SyncDaemon(settings).run();
+				return;
+			}
+
 			final Map<String, String> jvmProps = new LinkedHashMap<>();
 			if (settings.scale != null)
 			{
@@ -278,6 +339,9 @@ public class Launcher
 				SplashScreenMultipleOptions.barMessage(null);
 				SplashScreenMultipleOptions.message(null);
 
+				// use the time spent choosing to get the clients ready
+				prefetch(settings);
+
 			}
 			else
 			{
@@ -313,7 +377,7 @@ public class Launcher
 				return;
 			}
 
-			File location = new File(RUNELITE_DIR, "repository/" + type + "/");
+			File repositoryDir = new File(RUNELITE_DIR, "repository/" + type + "/");
 
 			stage(0, "Preparing", "Setting up environment");
 
@@ -338,11 +402,30 @@ public class Launcher
 				}
 			}
 
+			Repository repository = new Repository(repositoryDir);
+			if (settings.rollback)
+			{
+				rollback(type, repository, settings, jvmProps);
+				return;
+			}
+
+			if (settings.quickLaunch && quickLaunch(type, repository, settings, jvmProps))
+			{
+				return;
+			}
+
+			if (!postInstall)
+			{
+				LauncherSettings saved = LauncherSettings.loadSettings();
+				saved.lastClientType = type;
+				LauncherSettings.saveSettings(saved);
+			}
+
 			stage(.05, null, "Downloading bootstrap");
 			Bootstrap bootstrap;
 			try
 			{
-				bootstrap = getBootstrap(type);
+				bootstrap = getPrefetchedBootstrap(type);
 			}
 			catch (IOException | VerificationException | CertificateException | SignatureException | InvalidKeyException | NoSuchAlgorithmException ex)
 			{
@@ -360,7 +443,10 @@ public class Launcher
 
 			stage(.07, null, "Checking for updates");
 
-			Updater.update(bootstrap, settings, args);
+			if (!offline)
+			{
+				Updater.update(bootstrap, settings, args);
+			}
 
 			stage(.10, null, "Tidying the cache");
 
@@ -373,61 +459,33 @@ public class Launcher
 			// update packr vmargs to the launcher vmargs from bootstrap.
 			PackrConfig.updateLauncherArgs(bootstrap);
 
-			if (!location.exists() && !location.mkdirs())
+			if (!repositoryDir.exists() && !repositoryDir.mkdirs())
 			{
-				log.error("unable to create repo directory {}", location);
-				SwingUtilities.invokeLater(() -> new FatalErrorDialog("Unable to create {name} directory " + location.getAbsolutePath() + ". Check your filesystem permissions are correct.").open());
+				log.error("unable to create repo directory {}", repositoryDir);
+				SwingUtilities.invokeLater(() -> new FatalErrorDialog("Unable to create {name} directory " + repositoryDir.getAbsolutePath() + ". Check your filesystem permissions are correct.").open());
 				return;
 			}
 
 
-			String version = getJavaRuntimeVersion();
-			int majorVersion = getMajorJavaVersion(version);
-
-			if (majorVersion < 11) {
-				log.info("User using below java 11");
-				stage(.05, null, "Checking Java Version");
-				JavaInstaller.init();
-			} else {
-				log.info("User using 11 or above");
-			}
+			checkJavaVersion();
 
 			// Determine artifacts for this OS
-			List<Artifact> artifacts = Arrays.stream(bootstrap.getArtifacts())
-					.filter(a ->
-					{
-						if (a.getPlatform() == null)
-						{
-							return true;
-						}
+			List<Artifact> artifacts = getArtifacts(bootstrap);
 
-						final String os = System.getProperty("os.name");
-						final String arch = System.getProperty("os.arch");
-						for (Platform platform : a.getPlatform())
-						{
-							if (platform.getName() == null)
-							{
-								continue;
-							}
-
-							OS.OSType platformOs = OS.parseOs(platform.getName());
-							if ((platformOs == OS.OSType.Other ? platform.getName().equals(os) : platformOs == OS.getOs())
-									&& (platform.getArch() == null || platform.getArch().equals(arch)))
-							{
-								return true;
-							}
-						}
+			// a presync of this type is staging into the repository
+			awaitPresync(type);
 
-						return false;
-					})
-					.collect(Collectors.toList());
+			// Clean out generations left behind by an interrupted sync
+			repository.recover();
 
-			// Clean out old artifacts from the repository
-			clean(artifacts,type);
+			ArtifactStore store = getArtifactStore(settings);
 
+			final File location;
 			try
 			{
-				download(artifacts, settings.isNodiffs(),type);
+				// artifacts are verified as they finish downloading
+				location = download(bootstrap, artifacts, settings.isNodiffs(), type, repository, store);
+				store.getHashIndex().watch(location);
 			}
 			catch (IOException ex)
 			{
@@ -435,12 +493,6 @@ public class Launcher
 				SwingUtilities.invokeLater(() -> FatalErrorDialog.showNetErrorWindow("downloading the client", ex));
 				return;
 			}
-
-			stage(.80, null, "Verifying");
-			try
-			{
-				verifyJarHashes(artifacts,type);
-			}
 			catch (VerificationException ex)
 			{
 				log.error("Unable to verify artifacts", ex);
@@ -448,62 +500,355 @@ public class Launcher
 				return;
 			}
 
-			final Collection<String> clientArgs = getClientArgs(settings);
+			enforceDiskBudget(settings, Collections.singletonList(location));
+
 			stage(.90, "Starting the client", "");
+			repository.markLaunched(location);
+			startClient(bootstrap, type, artifacts, location, settings, jvmProps);
+		} catch (Exception e) {
+			log.error("Failure during startup", e);
+			if (!postInstall)
+			{
+				SwingUtilities.invokeLater(() ->
+						new FatalErrorDialog("{name} has encountered an unexpected error during startup.")
+								.open());
+			}
+		}
+		catch (Error e)
+		{
+			// packr seems to eat exceptions thrown out of main, so at least try to log it
+			log.error("Failure during startup", e);
+			throw e;
+		}
+		finally
+		{
+			close();
+		}
+	}
+
+	/**
+	 * Start the client from the current repository generation without waiting on the network, and stage
+	 * any update in the background for the next launch
+	 *
+	 * @return true if the client was started
+	 */
+	private static boolean quickLaunch(String type, Repository repository, LauncherSettings settings, Map<String, String> jvmProps) throws IOException
+	{
+		File current = repository.getCurrent();
+		Bootstrap bootstrap = current != null ? repository.getBootstrap(current) : null;
+		if (bootstrap == null)
+		{
+			log.debug("No generation of {} to quick launch", type);
+			return false;
+		}
+
+		HashIndex hashIndex = getArtifactStore(settings).getHashIndex();
+		List<Artifact> artifacts = getArtifacts(bootstrap);
+		if (!repository.isCurrent(artifacts, hashIndex))
+		{
+			log.debug("Current generation of {} is incomplete", type);
+			return false;
+		}
+
+		// A newer bootstrap which was verified by an earlier background update, but not staged yet, can
+		// require the update before the client is allowed to start
+		Bootstrap latest = getVerifiedBootstrap(type);
+		if (latest != null && isUpdateRequired(latest) && !repository.isCurrent(getArtifacts(latest), hashIndex))
+		{
+			log.info("Update of {} is required, not quick launching", type);
+			return false;
+		}
+
+		// The launcher update and the version checks quit the launcher or stop the launch, which they can't do
+		// under a running client, so the background update leaves them to a normal start
+		if (latest != null && (isLauncherTooOld(latest) || isJvmTooOld(latest) || (!offline && Updater.isUpdatePending(latest, settings))))
+		{
+			log.info("Launcher update or version check pending for {}, not quick launching", type);
+			return false;
+		}
+
+		log.info("Quick launching {} from generation {}", type, current.getName());
+		checkJavaVersion();
+		stage(.90, "Starting the client", "");
+		repository.markLaunched(current);
+		startClient(bootstrap, type, artifacts, current, settings, jvmProps);
 
-			List<File> classpath = artifacts.stream()
-					.map(dep -> new File(location, dep.getName()))
-					.collect(Collectors.toList());
+		if (!offline)
+		{
+			Thread thread = new Thread(() -> backgroundUpdate(type, repository, settings, current), "background-update");
+			thread.setPriority(Thread.MIN_PRIORITY);
+			thread.start();
+		}
+		return true;
+	}
 
-			List<String> jvmParams = new ArrayList<>();
-			// Set hs_err_pid location. This is a jvm param and can't be set at runtime.
-			log.debug("Setting JVM crash log location to {}", CRASH_FILES);
-			jvmParams.add("-XX:ErrorFile=" + CRASH_FILES.getAbsolutePath());
-			// Add VM args from cli/env
-			jvmParams.addAll(getJvmArgs(settings));
+	/**
+	 * Start the client from the generation before the current one, such as to get away from a bad release,
+	 * without using the network. The next launch which updates goes back to the newest generation.
+	 */
+	private static void rollback(String type, Repository repository, LauncherSettings settings, Map<String, String> jvmProps) throws IOException
+	{
+		List<File> generations = repository.getGenerations();
+		File previous = generations.size() > 1 ? generations.get(1) : null;
+		Bootstrap bootstrap = previous != null ? repository.getBootstrap(previous) : null;
+		if (bootstrap == null)
+		{
+			log.error("No previous generation of {} to roll back to", type);
+			SwingUtilities.invokeLater(() -> new FatalErrorDialog("There is no earlier version of the " + type + " client to roll back to.").open());
+			return;
+		}
+
+		List<Artifact> artifacts = getArtifacts(bootstrap);
+		if (!repository.isComplete(previous, artifacts, getArtifactStore(settings).getHashIndex()))
+		{
+			log.error("Generation {} of {} is incomplete", previous.getName(), type);
+			SwingUtilities.invokeLater(() -> new FatalErrorDialog("The earlier version of the " + type + " client is damaged and can't be rolled back to.").open());
+			return;
+		}
+
+		log.info("Rolling back {} to generation {}", type, previous.getName());
+		checkJavaVersion();
+		stage(.90, "Starting the client", "");
+		repository.markLaunched(previous);
+		startClient(bootstrap, type, artifacts, previous, settings, jvmProps);
+	}
 
-			if (settings.launchMode == LaunchMode.REFLECT)
+	/**
+	 * Fetch the bootstrap and stage a new generation if it changed, without touching the running client
+	 *
+	 * @param running the generation the client was started from
+	 */
+	private static void backgroundUpdate(String type, Repository repository, LauncherSettings settings, File running)
+	{
+		try
+		{
+			Bootstrap bootstrap = getBootstrap(type);
+			if (offline)
 			{
-				log.debug("Using launch mode: REFLECT");
-				ReflectionLauncher.launch(classpath, clientArgs,"");
+				return;
 			}
-			else if (settings.launchMode == LaunchMode.FORK || (settings.launchMode == LaunchMode.AUTO && ForkLauncher.canForkLaunch()))
+
+			// update packr vmargs to the launcher vmargs from bootstrap, for the next start
+			PackrConfig.updateLauncherArgs(bootstrap);
+
+			// getBootstrap keeps the verified bootstrap, from which the next start sees this and doesn't quick launch
+			if (isLauncherTooOld(bootstrap) || isJvmTooOld(bootstrap) || Updater.isUpdatePending(bootstrap, settings))
 			{
-				log.debug("Using launch mode: FORK");
-				ForkLauncher.launch(bootstrap, classpath, clientArgs, jvmProps, jvmParams);
+				log.info("The next launch of {} will run the launcher update or version check", type);
 			}
-			else
-			{
 
+			File location = download(bootstrap, getArtifacts(bootstrap), settings.isNodiffs(), type, repository, getArtifactStore(settings));
+			enforceDiskBudget(settings, Arrays.asList(running, location));
+			log.info("Background update of {} complete", type);
+		}
+		catch (Exception ex)
+		{
+			log.warn("Background update of {} failed", type, ex);
+		}
+	}
+
+	/**
+	 * Fetch and verify the bootstrap of every client type in parallel, and sync the most recently used type
+	 * at low priority, while the client chooser is shown
+	 */
+	private static void prefetch(LauncherSettings settings)
+	{
+		ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+				.setNameFormat("prefetch-%d")
+				.setPriority(Thread.MIN_PRIORITY)
+				.setDaemon(true)
+				.build());
 
-				if (System.getenv("APPIMAGE") != null)
+		for (String name : clientTypes.keySet())
+		{
+			String type = toTitleCase(name);
+			CompletableFuture<Bootstrap> bootstrap = CompletableFuture.supplyAsync(() ->
+			{
+				try
 				{
-					// java.home is in the appimage, so we can never use the jvm launcher
-					throw new RuntimeException("JVM launcher is not supported from the appimage");
+					return getBootstrap(type);
 				}
+				catch (Exception ex)
+				{
+					log.debug("unable to prefetch bootstrap for {}", type, ex);
+					throw new CompletionException(ex);
+				}
+			}, executor);
+			prefetchedBootstraps.put(type, bootstrap);
 
-				// launch mode JVM or AUTO outside of packr
-				log.debug("Using launch mode: JVM");
-				JvmLauncher.launch(bootstrap, classpath, clientArgs, jvmProps, jvmParams,type);
+			if (type.equals(settings.lastClientType))
+			{
+				presyncs.put(type, bootstrap.thenApplyAsync(b -> presync(type, b, settings), executor));
 			}
-		} catch (Exception e) {
-			log.error("Failure during startup", e);
-			if (!postInstall)
+		}
+
+		executor.shutdown();
+	}
+
+	private static File presync(String type, Bootstrap bootstrap, LauncherSettings settings)
+	{
+		if (offline)
+		{
+			return null;
+		}
+
+		try
+		{
+			File repositoryDir = new File(RUNELITE_DIR, "repository/" + type + "/");
+			repositoryDir.mkdirs();
+			Repository repository = new Repository(repositoryDir);
+			repository.recover();
+
+			log.debug("Presyncing {}", type);
+			return download(bootstrap, getArtifacts(bootstrap), settings.isNodiffs(), type, repository, getArtifactStore(settings));
+		}
+		catch (IOException | VerificationException ex)
+		{
+			log.debug("unable to presync {}", type, ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Get the bootstrap fetched while the client chooser was shown, or fetch it now
+	 */
+	private static Bootstrap getPrefetchedBootstrap(String type) throws IOException, CertificateException,
+			NoSuchAlgorithmException, InvalidKeyException, SignatureException, VerificationException
+	{
+		CompletableFuture<Bootstrap> prefetched = prefetchedBootstraps.remove(type);
+		if (prefetched != null)
+		{
+			try
 			{
-				SwingUtilities.invokeLater(() ->
-						new FatalErrorDialog("{name} has encountered an unexpected error during startup.")
-								.open());
+				return prefetched.join();
+			}
+			catch (CompletionException ex)
+			{
+				log.debug("prefetch of {} failed, fetching again", type);
 			}
 		}
-		catch (Error e)
+		return getBootstrap(type);
+	}
+
+	/**
+	 * Wait for a presync of the type to finish, so the repository isn't synced twice at once
+	 */
+	private static void awaitPresync(String type)
+	{
+		CompletableFuture<File> presync = presyncs.remove(type);
+		if (presync != null)
 		{
-			// packr seems to eat exceptions thrown out of main, so at least try to log it
-			log.error("Failure during startup", e);
-			throw e;
+			stage(.15, "Downloading", "");
+			try
+			{
+				presync.join();
+			}
+			catch (CompletionException ex)
+			{
+				log.debug("presync of {} failed", type, ex);
+			}
 		}
-		finally
+	}
+
+	/**
+	 * Check if a bootstrap must be updated to before the client starts
+	 */
+	private static boolean isUpdateRequired(Bootstrap bootstrap)
+	{
+		return bootstrap.isRequiredUpdate()
+				|| (bootstrap.getRequiredLauncherVersion() != null
+				&& compareVersion(bootstrap.getRequiredLauncherVersion(), LauncherProperties.getVersion()) > 0);
+	}
+
+	private static void checkJavaVersion()
+	{
+		String version = getJavaRuntimeVersion();
+		int majorVersion = getMajorJavaVersion(version);
+
+		if (majorVersion < 11) {
+			log.info("User using below java 11");
+			stage(.05, null, "Checking Java Version");
+			JavaInstaller.init();
+		} else {
+			log.info("User using 11 or above");
+		}
+	}
+
+	/**
+	 * Get the artifacts of a bootstrap for this OS
+	 */
+	static List<Artifact> getArtifacts(Bootstrap bootstrap)
+	{
+		return Arrays.stream(bootstrap.getArtifacts())
+				.filter(a ->
+				{
+					if (a.getPlatform() == null)
+					{
+						return true;
+					}
+
+					final String os = System.getProperty("os.name");
+					final String arch = System.getProperty("os.arch");
+					for (Platform platform : a.getPlatform())
+					{
+						if (platform.getName() == null)
+						{
+							continue;
+						}
+
+						OS.OSType platformOs = OS.parseOs(platform.getName());
+						if ((platformOs == OS.OSType.Other ? platform.getName().equals(os) : platformOs == OS.getOs())
+								&& (platform.getArch() == null || platform.getArch().equals(arch)))
+						{
+							return true;
+						}
+					}
+
+					return false;
+				})
+				.collect(Collectors.toList());
+	}
+
+	private static void startClient(Bootstrap bootstrap, String type, List<Artifact> artifacts, File location,
+			LauncherSettings settings, Map<String, String> jvmProps) throws IOException
+	{
+		final Collection<String> clientArgs = getClientArgs(settings);
+
+		List<File> classpath = artifacts.stream()
+				.map(dep -> new File(location, dep.getName()))
+				.collect(Collectors.toList());
+
+		List<String> jvmParams = new ArrayList<>();
+		// Set hs_err_pid location. This is a jvm param and can't be set at runtime.
+		log.debug("Setting JVM crash log location to {}", CRASH_FILES);
+		jvmParams.add("-XX:ErrorFile=" + CRASH_FILES.getAbsolutePath());
+		// Add VM args from cli/env
+		jvmParams.addAll(getJvmArgs(settings));
+
+		if (settings.launchMode == LaunchMode.REFLECT)
 		{
-			close();
+			log.debug("Using launch mode: REFLECT");
+			BandwidthLimiter.markClientRunning();
+			ReflectionLauncher.launch(classpath, clientArgs, type);
+		}
+		else if (settings.launchMode == LaunchMode.FORK || (settings.launchMode == LaunchMode.AUTO && ForkLauncher.canForkLaunch()))
+		{
+			log.debug("Using launch mode: FORK");
+			ForkLauncher.launch(bootstrap, classpath, clientArgs, jvmProps, jvmParams, type);
+		}
+		else
+		{
+
+
+			if (System.getenv("APPIMAGE") != null)
+			{
+				// java.home is in the appimage, so we can never use the jvm launcher
+				throw new RuntimeException("JVM launcher is not supported from the appimage");
+			}
+
+			// launch mode JVM or AUTO outside of packr
+			log.debug("Using launch mode: JVM");
+			JvmLauncher.launch(bootstrap, classpath, clientArgs, jvmProps, jvmParams,type);
 		}
 	}
 
@@ -512,7 +857,7 @@ public class Launcher
 		return runtimeMXBean.getSpecVersion();
 	}
 
-	private static int getMajorJavaVersion(String version) {
+	static int getMajorJavaVersion(String version) {
 		String[] versionElements = version.split("\\.");
 
 		int majorVersion;
@@ -559,6 +904,7 @@ public class Launcher
 			for (ClientType type : types)
 			{
 				clientTypes.put(type.getName(), type);
+				Mirrors.shared().add(type.getMirrors());
 			}
 		}
 		catch (Exception ex)
@@ -578,10 +924,36 @@ public class Launcher
 	}
 
 	private static ClientType[] getClientManifest() throws IOException {
-		HttpRequestManager httpRequestManager = new HttpRequestManager();
 		String manifestUrl = LauncherProperties.getRuneliteTypeManifest();
 
-		byte[] manifestBytes = httpRequestManager.sendGet(manifestUrl);
+		byte[] cachedBytes = httpCache.getCached(manifestUrl);
+		byte[] manifestBytes;
+		if (offline)
+		{
+			if (cachedBytes == null)
+			{
+				throw new IOException("No client manifest is available offline");
+			}
+			manifestBytes = cachedBytes;
+		}
+		else
+		{
+			try
+			{
+				manifestBytes = awaitNetwork(httpCache.getAsync(manifestUrl), cachedBytes != null).body;
+			}
+			catch (IOException ex)
+			{
+				if (cachedBytes == null)
+				{
+					throw ex;
+				}
+
+				log.warn("Unable to download the client manifest, launching offline", ex);
+				offline = true;
+				manifestBytes = cachedBytes;
+			}
+		}
 
 		Gson gson = new Gson();
 		ClientType[] manifest = gson.fromJson(new InputStreamReader(new ByteArrayInputStream(manifestBytes)), ClientType[].class);
@@ -592,29 +964,190 @@ public class Launcher
 
 	public static Bootstrap getBootstrap(String type) throws IOException, CertificateException,
 			NoSuchAlgorithmException, InvalidKeyException, SignatureException, VerificationException {
-		HttpRequestManager httpRequestManager = new HttpRequestManager();
+		// The last bootstrap and signature which were verified, kept for offline launches
+		File verifiedBootstrapFile = verifiedBootstrapFile(type);
+		File verifiedSignatureFile = new File(HTTP_CACHE_DIR, "bootstrap-" + type + ".sig");
+		byte[] verifiedBootstrapBytes = readFile(verifiedBootstrapFile);
+		byte[] verifiedSignatureBytes = readFile(verifiedSignatureFile);
+		boolean canLaunchOffline = verifiedBootstrapBytes != null && verifiedSignatureBytes != null;
+
+		byte[] bootstrapBytes;
+		byte[] signatureBytes;
+		if (offline)
+		{
+			if (!canLaunchOffline)
+			{
+				throw new IOException("No verified bootstrap for " + type + " is available offline");
+			}
+
+			log.info("Using the last verified bootstrap for {}", type);
+			bootstrapBytes = verifiedBootstrapBytes;
+			signatureBytes = verifiedSignatureBytes;
+		}
+		else
+		{
+			CompletableFuture<HttpCache.Response> bootstrapFuture = httpCache.getAsync(clientTypes.get(type).getBootstrap());
+			CompletableFuture<HttpCache.Response> signatureFuture = httpCache.getAsync(clientTypes.get(type).getBootstrapsig());
+			try
+			{
+				bootstrapBytes = awaitNetwork(bootstrapFuture, canLaunchOffline).body;
+				signatureBytes = awaitNetwork(signatureFuture, canLaunchOffline).body;
+			}
+			catch (IOException ex)
+			{
+				if (!canLaunchOffline)
+				{
+					throw ex;
+				}
 
-		byte[] bootstrapBytes = httpRequestManager.sendGet(clientTypes.get(type).getBootstrap());
-		byte[] signatureBytes = httpRequestManager.sendGet(clientTypes.get(type).getBootstrapsig());
+				log.warn("Unable to download the bootstrap for {}, launching offline", type, ex);
+				offline = true;
+				bootstrapBytes = verifiedBootstrapBytes;
+				signatureBytes = verifiedSignatureBytes;
+			}
+		}
+
+		// Identifies the exact bootstrap and signature which were verified
+		String digest = Hashing.sha256().newHasher()
+				.putBytes(bootstrapBytes)
+				.putBytes(signatureBytes)
+				.hash().toString();
+
+		VerifiedBootstrap verified = verifiedBootstraps.get(type);
+		if (verified != null && verified.digest.equals(digest))
+		{
+			log.debug("Bootstrap for {} unchanged", type);
+			return verified.bootstrap;
+		}
+
+		if (Arrays.equals(bootstrapBytes, verifiedBootstrapBytes) && Arrays.equals(signatureBytes, verifiedSignatureBytes))
+		{
+			log.debug("Bootstrap for {} was verified on a previous launch", type);
+		}
+		else
+		{
+			Certificate certificate = getCertificate();
+			Signature s = Signature.getInstance("SHA256withRSA");
+			s.initVerify(certificate);
+			s.update(bootstrapBytes);
 
-		Certificate certificate = getCertificate();
-		Signature s = Signature.getInstance("SHA256withRSA");
-		s.initVerify(certificate);
-		s.update(bootstrapBytes);
+			if (!s.verify(signatureBytes)) {
+				throw new VerificationException("Unable to verify bootstrap signature");
+			}
 
-		if (!s.verify(signatureBytes)) {
-			throw new VerificationException("Unable to verify bootstrap signature");
+			try
+			{
+				HTTP_CACHE_DIR.mkdirs();
+				Files.write(verifiedBootstrapFile.toPath(), bootstrapBytes);
+				Files.write(verifiedSignatureFile.toPath(), signatureBytes);
+			}
+			catch (IOException ex)
+			{
+				log.debug("unable to save verified bootstrap", ex);
+			}
 		}
 
 		Gson gson = new Gson();
-		return gson.fromJson(new InputStreamReader(new ByteArrayInputStream(bootstrapBytes)), Bootstrap.class);
+		Bootstrap bootstrap = gson.fromJson(new InputStreamReader(new ByteArrayInputStream(bootstrapBytes)), Bootstrap.class);
+		Mirrors.shared().add(bootstrap.getMirrors());
+		verifiedBootstraps.put(type, new VerifiedBootstrap(digest, bootstrap));
+		return bootstrap;
 	}
 
-	private static boolean jvmOutdated(Bootstrap bootstrap)
+	private static File verifiedBootstrapFile(String type)
+	{
+		return new File(HTTP_CACHE_DIR, "bootstrap-" + type + ".json");
+	}
+
+	/**
+	 * Get the last bootstrap which was verified, without using the network
+	 *
+	 * @return the bootstrap, or null if none has been verified
+	 */
+	private static Bootstrap getVerifiedBootstrap(String type)
 	{
-		boolean launcherTooOld = bootstrap.getRequiredLauncherVersion() != null &&
+		byte[] bytes = readFile(verifiedBootstrapFile(type));
+		if (bytes == null)
+		{
+			return null;
+		}
+
+		try
+		{
+			return new Gson().fromJson(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8), Bootstrap.class);
+		}
+		catch (JsonParseException ex)
+		{
+			log.debug("unable to parse verified bootstrap", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Wait for a request. If there is cached data to fall back to, give up after the offline timeout.
+	 */
+	private static <T> T awaitNetwork(CompletableFuture<T> future, boolean hasFallback) throws IOException
+	{
+		if (!hasFallback || offlineTimeout <= 0)
+		{
+			return HttpRequestManager.join(future);
+		}
+
+		try
+		{
+			return future.get(offlineTimeout, TimeUnit.SECONDS);
+		}
+		catch (TimeoutException ex)
+		{
+			throw new IOException("No response after " + offlineTimeout + " seconds", ex);
+		}
+		catch (ExecutionException ex)
+		{
+			if (ex.getCause() instanceof UncheckedIOException)
+			{
+				throw ((UncheckedIOException) ex.getCause()).getCause();
+			}
+			throw new IOException(ex.getCause());
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+	}
+
+	private static byte[] readFile(File file)
+	{
+		try
+		{
+			return Files.readAllBytes(file.toPath());
+		}
+		catch (IOException ex)
+		{
+			return null;
+		}
+	}
+
+	private static class VerifiedBootstrap
+	{
+		final String digest;
+		final Bootstrap bootstrap;
+
+		VerifiedBootstrap(String digest, Bootstrap bootstrap)
+		{
+			this.digest = digest;
+			this.bootstrap = bootstrap;
+		}
+	}
+
+	private static boolean isLauncherTooOld(Bootstrap bootstrap)
+	{
+		return bootstrap.getRequiredLauncherVersion() != null &&
 				compareVersion(bootstrap.getRequiredLauncherVersion(), LauncherProperties.getVersion()) > 0;
+	}
 
+	private static boolean isJvmTooOld(Bootstrap bootstrap)
+	{
 		boolean jvmTooOld = false;
 		try {
 			if (bootstrap.getRequiredJVMVersion() != null) {
@@ -625,7 +1158,13 @@ public class Launcher
 		} catch (Exception e) {
 			log.warn("Unable to parse bootstrap version", e);
 		}
+		return jvmTooOld;
+	}
 
+	private static boolean jvmOutdated(Bootstrap bootstrap)
+	{
+		boolean launcherTooOld = isLauncherTooOld(bootstrap);
+		boolean jvmTooOld = isJvmTooOld(bootstrap);
 
 		if (launcherTooOld)
 		{
@@ -692,216 +1231,76 @@ public class Launcher
 		return args;
 	}
 
-	private static void download(List<Artifact> artifacts, boolean nodiff, String type) throws IOException
+	/**
+	 * Get the artifact store, which is shared by every client type launched by this process
+	 */
+	static synchronized ArtifactStore getArtifactStore(LauncherSettings settings)
 	{
-		File location = new File(RUNELITE_DIR, "repository/" + type + "/");
-		List<Artifact> toDownload = new ArrayList<>(artifacts.size());
-		Map<Artifact, Diff> diffs = new HashMap<>();
-		int totalDownloadBytes = 0;
-		final boolean isCompatible = new DefaultDeflateCompatibilityWindow().isCompatible();
-
-		if (!isCompatible && !nodiff)
-		{
-			log.debug("System zlib is not compatible with archive-patcher; not using diffs");
-			nodiff = true;
-		}
-
-		for (Artifact artifact : artifacts)
-		{
-			File dest = new File(location, artifact.getName());
-
-			String hash;
-			try
-			{
-				hash = hash(dest);
-			}
-			catch (FileNotFoundException ex)
-			{
-				hash = null;
-			}
-			catch (IOException ex)
-			{
-				dest.delete();
-				hash = null;
-			}
-
-			if (Objects.equals(hash, artifact.getHash()))
-			{
-				log.debug("Hash for {} up to date", artifact.getName());
-				continue;
-			}
-
-			int downloadSize = artifact.getSize();
-
-			// See if there is a diff available
-			if (!nodiff && artifact.getDiffs() != null)
-			{
-				for (Diff diff : artifact.getDiffs())
-				{
-					File old = new File(location, diff.getFrom());
-
-					String oldhash;
-					try
-					{
-						oldhash = hash(old);
-					}
-					catch (IOException ex)
-					{
-						continue;
-					}
-
-					// Check if old file is valid
-					if (diff.getFromHash().equals(oldhash))
-					{
-						diffs.put(artifact, diff);
-						downloadSize = diff.getSize();
-					}
-				}
-			}
-
-			toDownload.add(artifact);
-			totalDownloadBytes += downloadSize;
-		}
-
-		final double START_PROGRESS = .15;
-		int downloaded = 0;
-		stage(START_PROGRESS, "Downloading", "");
-
-		for (Artifact artifact : toDownload)
+		if (artifactStore == null)
 		{
-			File dest = new File(location, artifact.getName());
-			final int total = downloaded;
-
-			// Check if there is a diff we can download instead
-			Diff diff = diffs.get(artifact);
-			if (diff != null)
-			{
-				log.debug("Downloading diff {}", diff.getName());
-
-				try
-				{
-					ByteArrayOutputStream out = new ByteArrayOutputStream();
-					final int totalBytes = totalDownloadBytes;
-					download(diff.getPath(), diff.getHash(), (completed) ->
-									stage(START_PROGRESS, .80, null, diff.getName(), total + completed, totalBytes, true),
-							out);
-					downloaded += diff.getSize();
-
-					File old = new File(location, diff.getFrom());
-					HashCode hash;
-					try (InputStream patchStream = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()));
-						 HashingOutputStream fout = new HashingOutputStream(Hashing.sha256(), Files.newOutputStream(dest.toPath())))
-					{
-						new FileByFileV1DeltaApplier().applyDelta(old, patchStream, fout);
-						hash = fout.hash();
-					}
-
-					if (artifact.getHash().equals(hash.toString()))
-					{
-						log.debug("Patching successful for {}", artifact.getName());
-						continue;
-					}
-
-					log.debug("Patched artifact hash mismatches! {}: got {} expected {}", artifact.getName(), hash.toString(), artifact.getHash());
-				}
-				catch (IOException | VerificationException e)
-				{
-					log.warn("unable to download patch {}", diff.getName(), e);
-					// Fall through and try downloading the full artifact
-				}
-
-				// Adjust the download size for the difference
-				totalDownloadBytes -= diff.getSize();
-				totalDownloadBytes += artifact.getSize();
-			}
-
-			log.debug("Downloading {}", artifact.getName());
-
-			try (OutputStream fout = Files.newOutputStream(dest.toPath()))
-			{
-				final int totalBytes = totalDownloadBytes;
-				download(artifact.getPath(), artifact.getHash(), (completed) ->
-								stage(START_PROGRESS, .80, null, artifact.getName(), total + completed, totalBytes, true),
-						fout);
-				downloaded += artifact.getSize();
-			}
-			catch (VerificationException e)
-			{
-				log.warn("unable to verify jar {}", artifact.getName(), e);
-			}
+			HashIndex hashIndex = HashIndex.load(new File(RUNELITE_DIR, "hashes.json"), TimeUnit.DAYS.toMillis(settings.hashVerifyDays));
+			artifactStore = new ArtifactStore(new File(RUNELITE_DIR, "store"), hashIndex);
 		}
+		return artifactStore;
 	}
 
-	private static void clean(List<Artifact> artifacts,String type)
+	/**
+	 * Sync the artifacts into a new generation of the repository, unless the current generation is already
+	 * up to date
+	 *
+	 * @return the directory of the generation to launch
+	 */
+	static File download(Bootstrap bootstrap, List<Artifact> artifacts, boolean nodiff, String type, Repository repository, ArtifactStore store) throws IOException, VerificationException
 	{
-		File location = new File(RUNELITE_DIR, "repository/" + type + "/");
-		File[] existingFiles = location.listFiles();
-
-		if (existingFiles == null)
-		{
-			return;
-		}
-
-		Set<String> artifactNames = new HashSet<>();
-		for (Artifact artifact : artifacts)
+		// the sync daemon or another launcher may be syncing this type
+		try (Closeable lock = repository.lock())
 		{
-			artifactNames.add(artifact.getName());
-			if (artifact.getDiffs() != null)
+			if (repository.isCurrent(artifacts, store.getHashIndex()))
 			{
-				// Keep around the old files which diffs are from
-				for (Diff diff : artifact.getDiffs())
-				{
-					artifactNames.add(diff.getFrom());
-				}
+				log.debug("Repository for {} is up to date", type);
+				File current = repository.getCurrent();
+				// the launch arguments can change without the artifacts changing
+				repository.saveBootstrap(current, bootstrap);
+				return current;
 			}
-		}
 
-		for (File file : existingFiles)
-		{
-			if (file.isFile() && !artifactNames.contains(file.getName()))
+			// such as after launching a rolled back generation, the newer generation is still kept
+			File kept = repository.find(artifacts, store.getHashIndex());
+			if (kept != null)
 			{
-				if (file.delete())
-				{
-					log.debug("Deleted old artifact {}", file);
-				}
-				else
-				{
-					log.warn("Unable to delete old artifact {}", file);
-				}
+				log.debug("Switching {} back to kept generation {}", type, kept.getName());
+				repository.commit(kept, bootstrap);
+				store.retain(type, repository.hashes());
+				return kept;
 			}
-		}
-	}
 
-	private static void verifyJarHashes(List<Artifact> artifacts, String type) throws VerificationException
-	{
-		File location = new File(RUNELITE_DIR, "repository/" + type + "/");
-		for (Artifact artifact : artifacts)
-		{
-			String expectedHash = artifact.getHash();
-			String fileHash;
-			try
-			{
-				fileHash = hash(new File(location, artifact.getName()));
-			}
-			catch (IOException e)
+			if (offline)
 			{
-				throw new VerificationException("unable to hash file", e);
+				throw new IOException("The " + type + " client is not fully downloaded, and can't be downloaded while offline");
 			}
 
-			if (!fileHash.equals(expectedHash))
-			{
-				log.warn("Expected {} for {} but got {}", expectedHash, artifact.getName(), fileHash);
-				throw new VerificationException("Expected " + expectedHash + " for " + artifact.getName() + " but got " + fileHash);
-			}
+			File previous = repository.getCurrent();
+			File location = repository.stage();
+			new ArtifactSync(location, previous != null ? previous : repository.getRoot(), nodiff, store).sync(artifacts);
+			repository.commit(location, bootstrap);
 
-			log.info("Verified hash of {}", artifact.getName());
+			// Keep the objects the kept generations use, so they can be launched and used as diff bases
+			store.retain(type, repository.hashes());
+			return location;
 		}
 	}
 
-	private static String hash(File file) throws IOException
+	/**
+	 * Evict the least recently launched generations of every client type if they are over the disk budget
+	 *
+	 * @param protect generations which are running or about to be launched
+	 */
+	static void enforceDiskBudget(LauncherSettings settings, Collection<File> protect)
 	{
-		HashFunction sha256 = Hashing.sha256();
-		return com.google.common.io.Files.asByteSource(file).hash(sha256).toString();
+		if (settings.diskBudgetMb > 0)
+		{
+			DiskBudget.enforce(new File(RUNELITE_DIR, "repository"), getArtifactStore(settings), settings.diskBudgetMb * 1024L * 1024L, protect);
+		}
 	}
 
 	private static Certificate getCertificate() throws CertificateException
@@ -954,31 +1353,61 @@ public class Launcher
 	}
 
 
-	static void download(String path, String hash, IntConsumer progress, OutputStream out) throws IOException, VerificationException
+	static void download(String path, String hash, LongConsumer progress, OutputStream out) throws IOException, VerificationException
 	{
-		URL url = new URL(path);
-		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-		conn.setRequestProperty("User-Agent", USER_AGENT);
-		conn.getResponseCode();
-
-		InputStream err = conn.getErrorStream();
-		if (err != null)
-		{
-			err.close();
-			throw new IOException("Unable to download " + path + " - " + conn.getResponseMessage());
-		}
-
-		int downloaded = 0;
 		HashingOutputStream hout = new HashingOutputStream(Hashing.sha256(), out);
-		try (InputStream in = conn.getInputStream())
+		AtomicLong downloaded = new AtomicLong();
+		List<String> candidates = Mirrors.shared().candidates(path);
+		for (int attempt = 0; ; ++attempt)
 		{
-			int i;
-			byte[] buffer = new byte[1024 * 1024];
-			while ((i = in.read(buffer)) != -1)
+			String url = candidates.get(attempt % candidates.size());
+			long start = System.nanoTime();
+			try
 			{
-				hout.write(buffer, 0, i);
-				downloaded += i;
-				progress.accept(downloaded);
+				HttpRequestManager.shared().fetch(url, Collections.emptyMap(), conn ->
+				{
+					HttpRequestManager.checkStatus(conn, url);
+
+					try (InputStream in = conn.getInputStream())
+					{
+						StallDetector stall = new StallDetector();
+						int i;
+						byte[] buffer = new byte[1024 * 1024];
+						while ((i = stall.read(in, buffer, 0, buffer.length)) != -1)
+						{
+							BandwidthLimiter.shared().acquire(i);
+							hout.write(buffer, 0, i);
+							progress.accept(downloaded.addAndGet(i));
+						}
+					}
+					return null;
+				});
+				Mirrors.shared().downloaded(url, downloaded.get(), System.nanoTime() - start);
+				break;
+			}
+			catch (IOException ex)
+			{
+				// the output can't be rewound, so only retry before anything was written to it
+				if (downloaded.get() > 0 || ex instanceof DownloadStoppedException)
+				{
+					throw ex;
+				}
+
+				Mirrors.shared().failed(url);
+				// every mirror gets a try before the retry policy applies
+				if (attempt + 1 >= candidates.size())
+				{
+					int retry = attempt + 2 - candidates.size();
+					if (retry >= RetryPolicy.getMaxAttempts() || !RetryPolicy.isRetryable(ex))
+					{
+						throw ex;
+					}
+					RetryPolicy.backoff(path, retry, ex);
+				}
+				else
+				{
+					log.warn("Download of {} failed, trying {}", url, candidates.get(attempt + 1), ex);
+				}
 			}
 		}
 
@@ -1059,29 +1488,14 @@ public class Launcher
 	static native String regQueryString(String subKey, String value);
 
 	public static void stage(double startProgress, double endProgress, @Nullable String actionText, String subActionText,
-							 int done, int total, boolean mib)
+							 long done, long total, boolean mib)
 	{
-		if (displayMultipleOptions)
-		{
-			SplashScreenMultipleOptions.stage(startProgress, endProgress, subActionText, done, total, mib);
-		}
-		else
-		{
-			SplashScreen.stage(startProgress, endProgress,
-					actionText, subActionText, done, total, mib);
-		}
+		ProgressModel.get().transfer(startProgress, endProgress, actionText, subActionText, done, total, mib);
 	}
 
 	public static void stage(double overallProgress, @Nullable String actionText, String subActionText)
 	{
-		if (displayMultipleOptions)
-		{
-			SplashScreenMultipleOptions.stage(overallProgress, subActionText);
-		}
-		else
-		{
-			SplashScreen.stage(overallProgress, actionText, subActionText);
-		}
+		ProgressModel.get().stage(overallProgress, actionText, subActionText, null);
 	}
 
 	public static void close()
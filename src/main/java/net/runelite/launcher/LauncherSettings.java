@@ -36,6 +36,7 @@ import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -53,6 +54,8 @@ class LauncherSettings
 	long lastUpdateAttemptTime;
 	String lastUpdateHash;
 	int lastUpdateAttemptNum;
+	// the client type launched last, which is synced ahead of time while the client chooser is shown
+	String lastClientType;
 
 	// configuration
 	boolean debug;
@@ -66,6 +69,40 @@ class LauncherSettings
 	List<String> jvmArguments = Collections.emptyList();
 	HardwareAccelerationMode hardwareAccelerationMode = HardwareAccelerationMode.AUTO;
 	LaunchMode launchMode = LaunchMode.AUTO;
+	// days before an artifact with an unchanged size and mtime is fully re-hashed
+	int hashVerifyDays = 7;
+	// launch from the last verified bootstrap without using the network
+	boolean offline;
+	// seconds to wait on the network before launching offline, 0 to always wait
+	int offlineTimeout = 15;
+	// start the client from the last synced version and update in the background for the next launch
+	boolean quickLaunch;
+	// launch the generation before the current one without using the network, for one launch only so it is never saved
+	transient boolean rollback;
+	// versions of each client type kept on disk for rolling back and as diff bases
+	int keepGenerations = 3;
+	// most disk space the kept versions of all client types may use in MB, 0 for no limit
+	int diskBudgetMb;
+	// origins, such as https://host, to mirrors serving the same paths, in addition to the ones the bootstraps list
+	Map<String, List<String>> mirrors = Collections.emptyMap();
+	// seconds to wait for a connection, and for data on an open connection
+	int connectTimeout = 10;
+	int readTimeout = 30;
+	// a download slower than this, in KB/s, is stalled and gets retried, 0 to never abort slow downloads
+	int stallRateKb = 1;
+	// times a failed request is made before it fails
+	int retryAttempts = 4;
+	// download rate limit in KB/s, 0 for no limit
+	int downloadLimitKb;
+	// download slower while a client is running
+	boolean downloadBackoff;
+	// when the sync daemon may download, as HH:mm-HH:mm, null for any time
+	@Nullable
+	String syncWindow;
+	// most the sync daemon downloads per day in MB, 0 for no limit
+	int syncBudgetMb;
+	// minutes between the sync daemon's bootstrap polls
+	int syncIntervalMinutes = 60;
 
 	// override settings with options from cli
 	void apply(OptionSet options)
@@ -78,6 +115,10 @@ class LauncherSettings
 		{
 			nodiffs = true;
 		}
+		if (options.has("verify"))
+		{
+			hashVerifyDays = 0;
+		}
 		if (options.has("insecure-skip-tls-verification"))
 		{
 			skipTlsVerification = true;
@@ -86,6 +127,30 @@ class LauncherSettings
 		{
 			noupdates = true;
 		}
+		if (options.has("offline"))
+		{
+			offline = true;
+		}
+		if (options.has("quick-launch"))
+		{
+			quickLaunch = true;
+		}
+		if (options.has("rollback"))
+		{
+			rollback = true;
+		}
+		if (options.has("download-limit"))
+		{
+			downloadLimitKb = (Integer) options.valueOf("download-limit");
+		}
+		if (options.has("download-backoff"))
+		{
+			downloadBackoff = true;
+		}
+		if (options.has("sync-window"))
+		{
+			syncWindow = String.valueOf(options.valueOf("sync-window"));
+		}
 		if (options.has("scale"))
 		{
 			scale = Double.parseDouble(String.valueOf(options.valueOf("scale")));
@@ -139,7 +204,22 @@ class LauncherSettings
 						" client arguments: {}" + System.lineSeparator() +
 						" jvm arguments: {}" + System.lineSeparator() +
 						" hardware acceleration mode: {}" + System.lineSeparator() +
-						" launch mode: {}",
+						" launch mode: {}" + System.lineSeparator() +
+						" hash verify days: {}" + System.lineSeparator() +
+						" offline: {}" + System.lineSeparator() +
+						" offline timeout: {}" + System.lineSeparator() +
+						" quick launch: {}" + System.lineSeparator() +
+						" rollback: {}" + System.lineSeparator() +
+						" generations kept: {}" + System.lineSeparator() +
+						" disk budget: {}" + System.lineSeparator() +
+						" mirrors: {}" + System.lineSeparator() +
+						" timeouts: {}" + System.lineSeparator() +
+						" stall rate: {}" + System.lineSeparator() +
+						" retry attempts: {}" + System.lineSeparator() +
+						" download limit: {}" + System.lineSeparator() +
+						" download backoff: {}" + System.lineSeparator() +
+						" sync window: {}" + System.lineSeparator() +
+						" sync budget: {}",
 				new Object[]{
 						debug,
 						nodiffs,
@@ -150,7 +230,22 @@ class LauncherSettings
 						clientArguments.isEmpty() ? "none" : clientArguments,
 						jvmArguments.isEmpty() ? "none" : jvmArguments,
 						hardwareAccelerationMode,
-						launchMode
+						launchMode,
+						hashVerifyDays,
+						offline,
+						offlineTimeout,
+						quickLaunch,
+						rollback,
+						keepGenerations,
+						diskBudgetMb > 0 ? diskBudgetMb + " MB" : "unlimited",
+						mirrors.isEmpty() ? "none" : mirrors,
+						"connect " + connectTimeout + "s, read " + readTimeout + "s",
+						stallRateKb > 0 ? stallRateKb + " KB/s" : "disabled",
+						retryAttempts,
+						downloadLimitKb > 0 ? downloadLimitKb + " KB/s" : "unlimited",
+						downloadBackoff,
+						syncWindow == null ? "any time" : syncWindow,
+						syncBudgetMb > 0 ? syncBudgetMb + " MB/day" : "unlimited"
 				}
 		).getMessage();
 	}
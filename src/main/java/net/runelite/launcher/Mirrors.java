@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mirrors of the hosts artifacts, diffs and bootstraps are downloaded from. A mirror is a base url which
+ * serves the same paths as its origin, so {@code https://origin/a/b.jar} maps to {@code <mirror>/a/b.jar}.
+ * The origin and its mirrors are probed in parallel the first time a url on the origin is used, and
+ * ranked by their measured round trip time and throughput. Rankings are kept in {@code mirrors.json}
+ * between launches. Everything downloaded is verified by hash or signature, so any mirror is safe to use.
+ */
+@Slf4j
+class Mirrors
+{
+	private static final File MIRRORS_FILE = new File(Launcher.RUNELITE_DIR, "mirrors.json");
+	private static final Type STATS_TYPE = new TypeToken<Map<String, Stats>>()
+	{
+	}.getType();
+
+	// how long a probe result is trusted before the mirrors of an origin are probed again
+	private static final long PROBE_INTERVAL = TimeUnit.DAYS.toMillis(1);
+	// the longest a download waits on probes, slow mirrors are ranked last until they answer
+	private static final long PROBE_TIMEOUT = TimeUnit.SECONDS.toMillis(3);
+	private static final int PROBE_BYTES = 64 * 1024;
+	// a mirror which failed is ranked after every other one for this long
+	private static final long FAILURE_PENALTY = TimeUnit.MINUTES.toMillis(10);
+	// the transfer size the ranking estimates the time of
+	private static final double RANKING_SIZE = 1024 * 1024;
+	// larger than any estimated time, in ms
+	private static final double TIER = 1e12;
+	// weight of a new throughput measurement
+	private static final double THROUGHPUT_ALPHA = .3;
+
+	private static final Mirrors INSTANCE = load();
+
+	// origin to mirror base urls
+	private final Map<String, Set<String>> mirrors = new ConcurrentHashMap<>();
+	// base url to measurements
+	private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+	private final Map<String, CompletableFuture<Void>> probes = new ConcurrentHashMap<>();
+
+	private final ExecutorService probeExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+		.setNameFormat("mirror-probe-%d")
+		.setDaemon(true)
+		.build());
+
+	static Mirrors shared()
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Add mirrors for origins, such as {@code https://host}
+	 */
+	void add(Map<String, ? extends Collection<String>> origins)
+	{
+		if (origins == null)
+		{
+			return;
+		}
+
+		for (Map.Entry<String, ? extends Collection<String>> entry : origins.entrySet())
+		{
+			String origin = trim(entry.getKey());
+			Set<String> bases = mirrors.computeIfAbsent(origin, k -> ConcurrentHashMap.newKeySet());
+			for (String base : entry.getValue())
+			{
+				if (!trim(base).equals(origin))
+				{
+					bases.add(trim(base));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the urls a resource can be downloaded from, best first. The first use of an origin waits
+	 * briefly for its mirrors to be probed.
+	 */
+	List<String> candidates(String url)
+	{
+		String origin = origin(url);
+		Set<String> bases = origin != null ? mirrors.get(origin) : null;
+		if (bases == null || bases.isEmpty())
+		{
+			return Collections.singletonList(url);
+		}
+
+		String path = url.substring(origin.length());
+		List<String> ranked = new ArrayList<>(bases.size() + 1);
+		ranked.add(origin);
+		ranked.addAll(bases);
+
+		awaitProbe(origin, ranked, path);
+
+		long now = System.currentTimeMillis();
+		ranked.sort(Comparator.comparingDouble(base -> cost(base, now)));
+		return ranked.stream()
+			.map(base -> base + path)
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Record a download from a url, so the ranking follows the throughput seen by real downloads
+	 */
+	void downloaded(String url, long bytes, long nanos)
+	{
+		if (bytes < PROBE_BYTES || nanos <= 0)
+		{
+			// too small to say anything about throughput
+			return;
+		}
+
+		String base = baseOf(url);
+		if (base != null)
+		{
+			stats.computeIfAbsent(base, k -> new Stats()).throughput(bytes * 1e9 / nanos);
+		}
+	}
+
+	/**
+	 * Record a failed request, ranking its mirror last for a while
+	 */
+	void failed(String url)
+	{
+		String base = baseOf(url);
+		if (base != null)
+		{
+			log.debug("Request to mirror {} failed", base);
+			stats.computeIfAbsent(base, k -> new Stats()).failed = System.currentTimeMillis();
+		}
+	}
+
+	private void awaitProbe(String origin, List<String> bases, String path)
+	{
+		long now = System.currentTimeMillis();
+		boolean stale = false;
+		for (String base : bases)
+		{
+			Stats s = stats.get(base);
+			stale |= s == null || now - s.probed > PROBE_INTERVAL;
+		}
+		if (!stale)
+		{
+			return;
+		}
+
+		CompletableFuture<Void> probe = probes.computeIfAbsent(origin, k ->
+		{
+			List<CompletableFuture<Void>> futures = new ArrayList<>();
+			for (String base : bases)
+			{
+				futures.add(CompletableFuture.runAsync(() -> probe(base, base + path), probeExecutor));
+			}
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+				.whenCompleteAsync((v, ex) ->
+				{
+					probes.remove(origin);
+					save();
+				}, probeExecutor);
+		});
+
+		try
+		{
+			probe.get(PROBE_TIMEOUT, TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException ex)
+		{
+			log.debug("Probing mirrors of {} timed out", origin);
+		}
+		catch (ExecutionException ex)
+		{
+			log.debug("Probing mirrors of {} failed", origin, ex);
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Measure the time to the response headers, and the throughput of the start of the body
+	 */
+	private void probe(String base, String url)
+	{
+		Stats s = stats.computeIfAbsent(base, k -> new Stats());
+		long start = System.nanoTime();
+		try
+		{
+			HttpRequestManager.shared().fetch(url, Collections.singletonMap("Range", "bytes=0-" + (PROBE_BYTES - 1)), conn ->
+			{
+				HttpRequestManager.checkStatus(conn, url);
+				long headers = System.nanoTime();
+
+				long read = 0;
+				try (InputStream in = conn.getInputStream())
+				{
+					byte[] buffer = new byte[8192];
+					int i;
+					while (read < PROBE_BYTES && (i = in.read(buffer)) != -1)
+					{
+						read += i;
+					}
+				}
+				long end = System.nanoTime();
+
+				s.rtt = TimeUnit.NANOSECONDS.toMillis(headers - start);
+				if (end > headers && read > 0)
+				{
+					s.throughput(read * 1e9 / (end - headers));
+				}
+				return null;
+			});
+			s.probed = System.currentTimeMillis();
+			s.failed = 0;
+			log.debug("Probed mirror {}: rtt {} ms, {} KB/s", base, s.rtt, (long) s.throughput / 1024);
+		}
+		catch (IOException | UncheckedIOException ex)
+		{
+			log.debug("Probe of mirror {} failed", base, ex);
+			s.probed = System.currentTimeMillis();
+			s.failed = s.probed;
+		}
+	}
+
+	/**
+	 * Estimate the time to download a megabyte from a base url. Unmeasured mirrors go after the measured
+	 * ones, and mirrors which failed recently after all of them.
+	 */
+	private double cost(String base, long now)
+	{
+		Stats s = stats.get(base);
+		boolean measured = s != null && s.throughput > 0;
+		boolean failed = s != null && now - s.failed < FAILURE_PENALTY;
+
+		int tier = (failed ? 2 : 0) + (measured ? 0 : 1);
+		double time = measured ? s.rtt + RANKING_SIZE * 1000 / s.throughput : 0;
+		return tier * TIER + time;
+	}
+
+	private String baseOf(String url)
+	{
+		String best = null;
+		for (Map.Entry<String, Set<String>> entry : mirrors.entrySet())
+		{
+			List<String> bases = new ArrayList<>(entry.getValue());
+			bases.add(entry.getKey());
+			for (String base : bases)
+			{
+				if (url.startsWith(base) && (best == null || base.length() > best.length()))
+				{
+					best = base;
+				}
+			}
+		}
+		return best;
+	}
+
+	private static String origin(String url)
+	{
+		try
+		{
+			URL u = new URL(url);
+			return u.getProtocol() + "://" + u.getAuthority();
+		}
+		catch (MalformedURLException ex)
+		{
+			return null;
+		}
+	}
+
+	private static String trim(String base)
+	{
+		return base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+	}
+
+	private static Mirrors load()
+	{
+		Mirrors mirrors = new Mirrors();
+		try (Reader in = new InputStreamReader(new FileInputStream(MIRRORS_FILE), StandardCharsets.UTF_8))
+		{
+			Map<String, Stats> stats = new Gson().fromJson(in, STATS_TYPE);
+			if (stats != null)
+			{
+				mirrors.stats.putAll(stats);
+			}
+		}
+		catch (FileNotFoundException ex)
+		{
+			log.debug("no mirror rankings");
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("unable to load mirror rankings", ex);
+		}
+		return mirrors;
+	}
+
+	/**
+	 * Write the rankings to disk
+	 */
+	synchronized void save()
+	{
+		if (stats.isEmpty())
+		{
+			return;
+		}
+
+		try
+		{
+			JsonFiles.writeJsonAtomically(MIRRORS_FILE, stats, STATS_TYPE);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save mirror rankings", ex);
+		}
+	}
+
+	private static class Stats
+	{
+		// time to the response headers, in ms
+		long rtt;
+		// bytes per second
+		double throughput;
+		// when the mirror was last probed
+		long probed;
+		// when a request to the mirror last failed
+		long failed;
+
+		synchronized void throughput(double measured)
+		{
+			throughput = throughput <= 0 ? measured : throughput + THROUGHPUT_ALPHA * (measured - throughput);
+		}
+	}
+}
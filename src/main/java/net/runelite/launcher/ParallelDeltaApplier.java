@@ -0,0 +1,428 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.archivepatcher.applier.PatchApplyPlan;
+import com.google.archivepatcher.applier.PatchReader;
+import com.google.archivepatcher.applier.bsdiff.BsDiffDeltaApplier;
+import com.google.archivepatcher.shared.DefaultDeflateCompatibilityWindow;
+import com.google.archivepatcher.shared.DeltaFriendlyFile;
+import com.google.archivepatcher.shared.JreDeflateParameters;
+import com.google.archivepatcher.shared.TypedRange;
+import com.google.common.io.ByteStreams;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies archive-patcher v1 patches like {@link com.google.archivepatcher.applier.FileByFileV1DeltaApplier},
+ * but recompresses the entries of the new archive on a worker pool instead of on the applying thread.
+ * Deflate output only depends on the input and the deflate parameters, so the archive is byte for byte
+ * the same as the one the single threaded applier writes. When the JRE's zlib doesn't compress like the
+ * reference zlib, entries are recompressed with {@link ZlibOutputStream} instead.
+ */
+@Slf4j
+class ParallelDeltaApplier
+{
+	private static final int BUFFER_SIZE = 32 * 1024;
+	// entries larger than this are recompressed inline rather than buffered in memory
+	private static final int MAX_BUFFERED_ENTRY = 8 * 1024 * 1024;
+	// uncompressed bytes waiting on the pool before the applier waits for them to be written out
+	private static final long MAX_PENDING = 32 * 1024 * 1024;
+	// largest run of bytes outside of the compressed entries held back behind pending entries
+	private static final int MAX_SEGMENT = 1024 * 1024;
+
+	// the JRE's zlib may be patched or replaced on some platforms, and can't reproduce the archives then
+	private static final boolean SYSTEM_ZLIB_COMPATIBLE = ProbeCache.shared().get("deflate-compatible", Boolean.class,
+		() -> new DefaultDeflateCompatibilityWindow().isCompatible());
+
+	static
+	{
+		if (!SYSTEM_ZLIB_COMPATIBLE)
+		{
+			log.info("System zlib is not compatible with archive-patcher, recompressing with the bundled deflate");
+		}
+	}
+
+	private final ExecutorService executor;
+	// recompress with the JRE's zlib rather than ZlibOutputStream
+	private final boolean systemZlib;
+	private final AtomicLong workerCpuTime = new AtomicLong();
+
+	ParallelDeltaApplier(ExecutorService executor)
+	{
+		this(executor, SYSTEM_ZLIB_COMPATIBLE);
+	}
+
+	ParallelDeltaApplier(ExecutorService executor, boolean systemZlib)
+	{
+		this.executor = executor;
+		this.systemZlib = systemZlib;
+	}
+
+	/**
+	 * Apply a patch
+	 *
+	 * @param oldBlob    the archive the patch is from
+	 * @param tempFile   file to write the uncompressed form of the old archive to
+	 * @param deltaIn    the patch
+	 * @param newBlobOut where to write the new archive
+	 */
+	void applyDelta(File oldBlob, File tempFile, InputStream deltaIn, OutputStream newBlobOut) throws IOException
+	{
+		PatchApplyPlan plan = new PatchReader().readPatchApplyPlan(deltaIn);
+
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE))
+		{
+			DeltaFriendlyFile.generateDeltaFriendlyFile(plan.getOldFileUncompressionPlan(), oldBlob, out, false, BUFFER_SIZE);
+		}
+
+		// only one delta is supported by the v1 format
+		long deltaLength = plan.getDeltaDescriptors().get(0).getDeltaLength();
+		RecompressingOutputStream out = new RecompressingOutputStream(plan.getDeltaFriendlyNewFileRecompressionPlan(), newBlobOut);
+		try
+		{
+			// neither stream is closed, the caller owns both
+			new BsDiffDeltaApplier().applyDelta(tempFile, ByteStreams.limit(deltaIn, deltaLength), out);
+			out.finish();
+		}
+		finally
+		{
+			out.cancel();
+		}
+	}
+
+	/**
+	 * Get the CPU time the pool spent recompressing entries for this applier
+	 *
+	 * @return the time in ns, or 0 if it couldn't be measured
+	 */
+	long getWorkerCpuTime()
+	{
+		return workerCpuTime.get();
+	}
+
+	private byte[] deflate(byte[] data, JreDeflateParameters parameters)
+	{
+		long cpuStart = ArtifactSync.cpuTime();
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 2 + 64);
+		Compressor compressor = new Compressor(compressed, parameters, systemZlib);
+		try
+		{
+			compressor.stream.write(data);
+			compressor.finish();
+			return compressed.toByteArray();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		finally
+		{
+			compressor.end();
+			if (cpuStart >= 0)
+			{
+				workerCpuTime.addAndGet(ArtifactSync.cpuTime() - cpuStart);
+			}
+		}
+	}
+
+	/**
+	 * A deflate stream with the JRE's zlib if it compresses like the reference zlib, and the bundled port of
+	 * it otherwise
+	 */
+	private static class Compressor
+	{
+		private final Deflater deflater;
+		final OutputStream stream;
+
+		Compressor(OutputStream out, JreDeflateParameters parameters, boolean systemZlib)
+		{
+			if (systemZlib)
+			{
+				deflater = new Deflater(parameters.level, parameters.nowrap);
+				deflater.setStrategy(parameters.strategy);
+				stream = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+			}
+			else
+			{
+				deflater = null;
+				stream = new ZlibOutputStream(out, parameters.level, parameters.strategy, parameters.nowrap);
+			}
+		}
+
+		/**
+		 * Write the rest of the compressed data, leaving the underlying stream open
+		 */
+		void finish() throws IOException
+		{
+			if (deflater != null)
+			{
+				((DeflaterOutputStream) stream).finish();
+			}
+			else
+			{
+				((ZlibOutputStream) stream).finish();
+			}
+		}
+
+		void end()
+		{
+			if (deflater != null)
+			{
+				deflater.end();
+			}
+		}
+	}
+
+	/**
+	 * Takes the uncompressed form of the new archive and writes it out with its entries compressed again.
+	 * Each entry is compressed as a task on the pool, and the results are written out in order as they
+	 * complete.
+	 */
+	private class RecompressingOutputStream extends OutputStream
+	{
+		private final Iterator<TypedRange<JreDeflateParameters>> ranges;
+		private final OutputStream out;
+		private final Deque<Segment> pending = new ArrayDeque<>();
+		private long pendingBytes;
+		private long position;
+
+		private TypedRange<JreDeflateParameters> next;
+		private TypedRange<JreDeflateParameters> current;
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		private Compressor inline;
+
+		RecompressingOutputStream(List<TypedRange<JreDeflateParameters>> ranges, OutputStream out)
+		{
+			this.ranges = ranges.iterator();
+			this.out = out;
+			next = this.ranges.hasNext() ? this.ranges.next() : null;
+		}
+
+		@Override
+		public void write(int b) throws IOException
+		{
+			write(new byte[]{(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			while (len > 0)
+			{
+				boundaries();
+
+				long end = current != null ? current.getOffset() + current.getLength()
+					: next != null ? next.getOffset() : Long.MAX_VALUE;
+				int n = (int) Math.min(len, end - position);
+				if (inline != null)
+				{
+					inline.stream.write(b, off, n);
+				}
+				else if (current == null && pending.isEmpty())
+				{
+					out.write(b, off, n);
+				}
+				else
+				{
+					buffer.write(b, off, n);
+					if (current == null && buffer.size() >= MAX_SEGMENT)
+					{
+						flushSegment();
+					}
+				}
+
+				position += n;
+				off += n;
+				len -= n;
+			}
+			boundaries();
+		}
+
+		/**
+		 * Start and end entries at the current position
+		 */
+		private void boundaries() throws IOException
+		{
+			for (;;)
+			{
+				if (current != null && position == current.getOffset() + current.getLength())
+				{
+					endRange();
+				}
+				else if (current == null && next != null && position == next.getOffset())
+				{
+					startRange();
+				}
+				else
+				{
+					return;
+				}
+			}
+		}
+
+		private void startRange() throws IOException
+		{
+			flushSegment();
+			current = next;
+			next = ranges.hasNext() ? ranges.next() : null;
+
+			if (current.getLength() > MAX_BUFFERED_ENTRY)
+			{
+				// everything before the entry has to be written first
+				while (!pending.isEmpty())
+				{
+					writeNext();
+				}
+				inline = new Compressor(out, current.getMetadata(), systemZlib);
+			}
+		}
+
+		private void endRange() throws IOException
+		{
+			if (inline != null)
+			{
+				inline.finish();
+				inline.end();
+				inline = null;
+			}
+			else
+			{
+				byte[] data = buffer.toByteArray();
+				buffer.reset();
+				JreDeflateParameters parameters = current.getMetadata();
+				add(new Segment(CompletableFuture.supplyAsync(() -> deflate(data, parameters), executor), data.length));
+			}
+			current = null;
+		}
+
+		/**
+		 * Queue the bytes outside of entries which are being held back behind pending entries
+		 */
+		private void flushSegment() throws IOException
+		{
+			if (buffer.size() > 0)
+			{
+				byte[] data = buffer.toByteArray();
+				buffer.reset();
+				add(new Segment(CompletableFuture.completedFuture(data), data.length));
+			}
+		}
+
+		private void add(Segment segment) throws IOException
+		{
+			pending.add(segment);
+			pendingBytes += segment.size;
+
+			while (!pending.isEmpty() && (pendingBytes > MAX_PENDING || pending.peek().data.isDone()))
+			{
+				writeNext();
+			}
+		}
+
+		private void writeNext() throws IOException
+		{
+			Segment segment = pending.poll();
+			pendingBytes -= segment.size;
+			try
+			{
+				out.write(segment.data.get());
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+			catch (ExecutionException e)
+			{
+				throw new IOException("unable to recompress entry", e.getCause());
+			}
+		}
+
+		/**
+		 * Write out everything which is still pending
+		 */
+		void finish() throws IOException
+		{
+			if (current != null)
+			{
+				throw new IOException("patch ended part way through an entry");
+			}
+			flushSegment();
+			while (!pending.isEmpty())
+			{
+				writeNext();
+			}
+		}
+
+		/**
+		 * Stop recompressing after a failure
+		 */
+		void cancel()
+		{
+			for (Segment segment : pending)
+			{
+				segment.data.cancel(false);
+			}
+			pending.clear();
+			if (inline != null)
+			{
+				inline.end();
+				inline = null;
+			}
+		}
+	}
+
+	private static class Segment
+	{
+		final Future<byte[]> data;
+		final int size;
+
+		Segment(Future<byte[]> data, int size)
+		{
+			this.data = data;
+			this.size = size;
+		}
+	}
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Results of probing the platform which only change along with the JVM, the OS or the launcher, such as
+ * whether the JRE's zlib is compatible with archive-patcher. They are kept in {@code probes.json} with the
+ * platform they were probed on, and are all dropped when any part of it changes.
+ */
+@Slf4j
+class ProbeCache
+{
+	private static final File PROBES_FILE = new File(Launcher.RUNELITE_DIR, "probes.json");
+
+	private static ProbeCache shared;
+
+	private final Probes probes;
+	private boolean dirty;
+	// time saved by each probe which wasn't run since the last report, in ns
+	private final Map<String, Long> saved = new LinkedHashMap<>();
+
+	private ProbeCache(Probes probes)
+	{
+		this.probes = probes;
+	}
+
+	static synchronized ProbeCache shared()
+	{
+		if (shared == null)
+		{
+			shared = new ProbeCache(load());
+		}
+		return shared;
+	}
+
+	/**
+	 * Get the result of a probe, running it if it hasn't been run on this platform. The probe runs without
+	 * holding the cache, so two threads may both run it.
+	 */
+	<T> T get(String name, Class<T> type, Supplier<T> probe)
+	{
+		T value = peek(name, type);
+		if (value != null)
+		{
+			saved(name);
+			return value;
+		}
+
+		long start = System.nanoTime();
+		value = probe.get();
+		put(name, value, System.nanoTime() - start);
+		return value;
+	}
+
+	/**
+	 * Get the result of a probe without running it
+	 *
+	 * @return the result, or null if the probe hasn't been run on this platform
+	 */
+	synchronized <T> T peek(String name, Class<T> type)
+	{
+		Result result = probes.results.get(name);
+		if (result == null)
+		{
+			return null;
+		}
+
+		try
+		{
+			return new Gson().fromJson(result.value, type);
+		}
+		catch (JsonParseException ex)
+		{
+			log.debug("unable to read probe {}", name, ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Record the result of a probe
+	 *
+	 * @param nanos how long the probe took
+	 */
+	synchronized void put(String name, Object value, long nanos)
+	{
+		Result result = new Result();
+		result.value = new Gson().toJson(value);
+		result.nanos = nanos;
+		probes.results.put(name, result);
+		dirty = true;
+	}
+
+	/**
+	 * Record that a probe wasn't run because its result was cached
+	 */
+	synchronized void saved(String name)
+	{
+		Result result = probes.results.get(name);
+		if (result != null)
+		{
+			saved.merge(name, result.nanos, Long::sum);
+		}
+	}
+
+	/**
+	 * Report the time saved since the last report, and write any new results to disk
+	 */
+	synchronized void save()
+	{
+		if (!saved.isEmpty())
+		{
+			long total = 0;
+			StringBuilder sb = new StringBuilder();
+			for (Map.Entry<String, Long> entry : saved.entrySet())
+			{
+				total += entry.getValue();
+				sb.append(sb.length() > 0 ? ", " : "").append(entry.getKey()).append(' ')
+					.append(TimeUnit.NANOSECONDS.toMillis(entry.getValue())).append(" ms");
+			}
+			log.info("Cached platform probes saved {} ms: {}", TimeUnit.NANOSECONDS.toMillis(total), sb);
+			saved.clear();
+		}
+
+		if (!dirty)
+		{
+			return;
+		}
+
+		try
+		{
+			JsonFiles.writeJsonAtomically(PROBES_FILE, probes, Probes.class);
+			dirty = false;
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save platform probes", ex);
+		}
+	}
+
+	/**
+	 * Describe the platform the probes run on
+	 */
+	private static String platform()
+	{
+		return String.join("/",
+			Objects.toString(System.getProperty("java.vendor")),
+			Objects.toString(System.getProperty("java.vm.version", System.getProperty("java.version"))),
+			Objects.toString(System.getProperty("os.name")),
+			Objects.toString(System.getProperty("os.version")),
+			Objects.toString(System.getProperty("os.arch")),
+			Objects.toString(LauncherProperties.getVersion()));
+	}
+
+	private static Probes load()
+	{
+		String platform = platform();
+		try (Reader in = new InputStreamReader(new FileInputStream(PROBES_FILE), StandardCharsets.UTF_8))
+		{
+			Probes probes = new Gson().fromJson(in, Probes.class);
+			if (probes != null && platform.equals(probes.platform) && probes.results != null)
+			{
+				return probes;
+			}
+			log.debug("Platform changed, probing again");
+		}
+		catch (FileNotFoundException ex)
+		{
+			log.debug("no platform probes");
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("unable to load platform probes", ex);
+		}
+
+		Probes probes = new Probes();
+		probes.platform = platform;
+		return probes;
+	}
+
+	private static class Probes
+	{
+		// the jvm, os and launcher the results are for
+		String platform;
+		Map<String, Result> results = new HashMap<>();
+	}
+
+	private static class Result
+	{
+		// json of the result
+		String value;
+		// how long the probe took, in ns
+		long nanos;
+	}
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import javax.swing.Timer;
+
+/**
+ * The launch progress shown by the splash screens. Any thread may update it, and updates are only
+ * volatile writes and atomic counters, so downloads can report every read. A timer on the EDT reads it
+ * at most once a frame, works out the throughput and time left, and hands the result to the splash
+ * screen which is showing.
+ */
+public class ProgressModel
+{
+	private static final int FRAME_INTERVAL = 1000 / 30;
+	// time constant of the throughput average, in seconds
+	private static final double RATE_TIME_CONSTANT = 3;
+
+	private static final ProgressModel INSTANCE = new ProgressModel();
+
+	private volatile String action = "Loading";
+	private volatile String subAction = "";
+	@Nullable
+	private volatile String progressText;
+	private volatile double overall;
+
+	// whether the current stage counts bytes, which progress from start to end of the overall progress
+	private volatile boolean transfer;
+	private volatile boolean mib;
+	private volatile double start;
+	private volatile double end;
+	private final AtomicLong done = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	// changes whenever a new transfer starts, so the throughput isn't averaged across two of them
+	private volatile int generation;
+
+	// only used on the EDT
+	private Timer timer;
+	private long lastTick;
+	private long lastDone;
+	private int lastGeneration;
+	private double rate;
+
+	public static ProgressModel get()
+	{
+		return INSTANCE;
+	}
+
+	public void stage(double overall, @Nullable String action, String subAction, @Nullable String progressText)
+	{
+		this.transfer = false;
+		if (action != null)
+		{
+			this.action = action;
+		}
+		this.subAction = subAction;
+		this.progressText = progressText;
+		this.overall = overall;
+	}
+
+	/**
+	 * Report a stage which counts bytes, or other units if {@code mib} is false. {@code done} is absolute,
+	 * so this is only for a transfer reported from a single thread; a lower {@code done} than last time
+	 * starts a new transfer.
+	 */
+	public synchronized void transfer(double start, double end, @Nullable String action, String subAction, long done, long total, boolean mib)
+	{
+		if (!this.transfer || done < this.done.get())
+		{
+			generation++;
+		}
+		if (action != null)
+		{
+			this.action = action;
+		}
+		this.subAction = subAction;
+		this.start = start;
+		this.end = end;
+		this.mib = mib;
+		this.done.set(done);
+		this.total.set(total);
+		this.transfer = true;
+	}
+
+	/**
+	 * Start a stage which counts bytes added by any number of threads with {@link #add(long)}. The total
+	 * may still grow with {@link #addTotal(long)} as more work is found.
+	 */
+	public synchronized void startTransfer(double start, double end, @Nullable String action, long total)
+	{
+		// hidden until the counters are reset, a snapshot in between would mix two transfers
+		this.transfer = false;
+		generation++;
+		if (action != null)
+		{
+			this.action = action;
+		}
+		this.subAction = "";
+		this.start = start;
+		this.end = end;
+		this.mib = true;
+		this.done.set(0);
+		this.total.set(total);
+		this.transfer = true;
+	}
+
+	/**
+	 * Count bytes transferred in the current stage. The count only grows; work which has to be redone is
+	 * added to the total instead.
+	 */
+	public void add(long bytes)
+	{
+		if (bytes > 0)
+		{
+			done.addAndGet(bytes);
+		}
+	}
+
+	public void addTotal(long bytes)
+	{
+		total.addAndGet(bytes);
+	}
+
+	public void setSubAction(String subAction)
+	{
+		this.subAction = subAction;
+	}
+
+	/**
+	 * Start showing the progress on a view, replacing the previous one. Must be called on the EDT.
+	 */
+	public void show(Consumer<Snapshot> view)
+	{
+		hide();
+		lastTick = 0;
+		rate = 0;
+		timer = new Timer(FRAME_INTERVAL, e -> view.accept(snapshot()));
+		timer.setRepeats(true);
+		timer.start();
+	}
+
+	/**
+	 * Stop showing the progress. Must be called on the EDT.
+	 */
+	public void hide()
+	{
+		if (timer != null)
+		{
+			timer.stop();
+			timer = null;
+		}
+	}
+
+	private Snapshot snapshot()
+	{
+		long now = System.nanoTime();
+		boolean transfer = this.transfer;
+		int generation = this.generation;
+		long done = this.done.get();
+		long total = Math.max(done, this.total.get());
+
+		if (!transfer || generation != lastGeneration)
+		{
+			// a new transfer, so the average starts over
+			rate = 0;
+		}
+		else if (lastTick != 0 && now > lastTick)
+		{
+			double dt = (now - lastTick) / 1e9;
+			double instant = (done - lastDone) / dt;
+			rate += (1 - Math.exp(-dt / RATE_TIME_CONSTANT)) * (instant - rate);
+		}
+		lastTick = now;
+		lastDone = done;
+		lastGeneration = generation;
+
+		if (!transfer)
+		{
+			return new Snapshot(action, subAction, progressText, overall, false, mib, 0, 0, 0, -1);
+		}
+
+		double progress = total > 0 ? start + (end - start) * done / total : start;
+		long eta = rate > 1 && total > done ? (long) ((total - done) / rate) : -1;
+		return new Snapshot(action, subAction, null, progress, true, mib, done, total, rate, eta);
+	}
+
+	/**
+	 * The progress at one frame
+	 */
+	public static class Snapshot
+	{
+		public final String action;
+		public final String subAction;
+		// text for the progress bar of a stage which doesn't count bytes
+		@Nullable
+		public final String progressText;
+		// from 0 to 1
+		public final double progress;
+		public final boolean transfer;
+		public final boolean mib;
+		public final long done;
+		public final long total;
+		// units per second
+		public final double rate;
+		// seconds left, -1 if unknown
+		public final long eta;
+
+		Snapshot(String action, String subAction, @Nullable String progressText, double progress, boolean transfer,
+			boolean mib, long done, long total, double rate, long eta)
+		{
+			this.action = action;
+			this.subAction = subAction;
+			this.progressText = progressText;
+			this.progress = progress;
+			this.transfer = transfer;
+			this.mib = mib;
+			this.done = done;
+			this.total = total;
+			this.rate = rate;
+			this.eta = eta;
+		}
+
+		/**
+		 * Format the time left, such as {@code 1:05}
+		 */
+		public String formatEta()
+		{
+			return eta < 0 ? "" : String.format("%d:%02d", eta / 60, eta % 60);
+		}
+	}
+}
@@ -0,0 +1,630 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.launcher.beans.Artifact;
+import net.runelite.launcher.beans.Bootstrap;
+import net.runelite.launcher.beans.Diff;
+
+/**
+ * The repository directory of a client type. Each sync is staged into a new generation directory, and
+ * the {@code current} pointer file is switched to it only after every artifact is verified, so the
+ * artifacts of a generation a client runs from are never written to. The pointer file lists the kept
+ * generations, newest first. Syncs and cleanups hold the repository {@link #lock() lock}, so launcher
+ * processes and the sync daemon never stage into the same repository at once.
+ * <p>
+ * The last few generations are kept, so the client can be rolled back to an earlier version without
+ * using the network, and their artifacts stay in the store as diff bases. When each generation was
+ * last launched is recorded so the {@link DiskBudget disk budget} can remove the least used ones.
+ */
+@Slf4j
+class Repository
+{
+	private static final String CURRENT = "current";
+	// the bootstrap a generation was synced from, so it can be launched without fetching the bootstrap
+	private static final String BOOTSTRAP = "bootstrap.json";
+	// the fewest generations kept after a commit, so a client started from the previous one keeps working
+	private static final int MIN_GENERATIONS = 2;
+	// when each generation was last launched, or committed if it hasn't been launched yet
+	private static final String LAUNCHED = "launched.json";
+	private static final Type LAUNCHED_TYPE = new TypeToken<Map<String, Long>>()
+	{
+	}.getType();
+	// locked while the repository is synced or cleaned up, by this or another launcher process such as the sync daemon
+	private static final String LOCK = "lock";
+
+	// file locks are held by the whole process, so threads of this process are excluded separately
+	private static final Map<File, ReentrantLock> threadLocks = new ConcurrentHashMap<>();
+
+	private static volatile int keepGenerations = 3;
+
+	@Getter
+	private final File root;
+
+	Repository(File root)
+	{
+		this.root = root;
+	}
+
+	/**
+	 * @param keep generations kept after a commit, at least 2
+	 */
+	static void configure(int keep)
+	{
+		keepGenerations = Math.max(MIN_GENERATIONS, keep);
+	}
+
+	/**
+	 * Take the sync lock of the repository, waiting for a sync in this or another launcher process to
+	 * finish. The lock is reentrant.
+	 *
+	 * @return closing it releases the lock
+	 */
+	Closeable lock() throws IOException
+	{
+		ReentrantLock threadLock = threadLocks.computeIfAbsent(root.getAbsoluteFile(), k -> new ReentrantLock());
+		threadLock.lock();
+		if (threadLock.getHoldCount() > 1)
+		{
+			return threadLock::unlock;
+		}
+
+		try
+		{
+			FileChannel channel = FileChannel.open(new File(root, LOCK).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			try
+			{
+				channel.lock();
+			}
+			catch (IOException ex)
+			{
+				channel.close();
+				throw ex;
+			}
+
+			return () ->
+			{
+				try
+				{
+					// closing the channel releases the file lock
+					channel.close();
+				}
+				finally
+				{
+					threadLock.unlock();
+				}
+			};
+		}
+		catch (IOException ex)
+		{
+			threadLock.unlock();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Take the sync lock of the repository if no sync in this or another launcher process holds it
+	 *
+	 * @return closing it releases the lock, or null if the lock is held
+	 */
+	Closeable tryLock() throws IOException
+	{
+		ReentrantLock threadLock = threadLocks.computeIfAbsent(root.getAbsoluteFile(), k -> new ReentrantLock());
+		if (!threadLock.tryLock())
+		{
+			return null;
+		}
+		if (threadLock.getHoldCount() > 1)
+		{
+			return threadLock::unlock;
+		}
+
+		try
+		{
+			FileChannel channel = FileChannel.open(new File(root, LOCK).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			FileLock lock;
+			try
+			{
+				lock = channel.tryLock();
+			}
+			catch (IOException ex)
+			{
+				channel.close();
+				throw ex;
+			}
+
+			if (lock == null)
+			{
+				channel.close();
+				threadLock.unlock();
+				return null;
+			}
+
+			return () ->
+			{
+				try
+				{
+					channel.close();
+				}
+				finally
+				{
+					threadLock.unlock();
+				}
+			};
+		}
+		catch (IOException ex)
+		{
+			threadLock.unlock();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Get the directory of the current generation, or null if there isn't one
+	 */
+	File getCurrent()
+	{
+		List<String> generations = readGenerations();
+		if (generations.isEmpty())
+		{
+			return null;
+		}
+
+		File dir = new File(root, generations.get(0));
+		return dir.isDirectory() ? dir : null;
+	}
+
+	/**
+	 * Get the directories of the committed generations, newest first
+	 */
+	List<File> getGenerations()
+	{
+		List<File> dirs = new ArrayList<>();
+		for (String name : readGenerations())
+		{
+			File dir = new File(root, name);
+			if (dir.isDirectory())
+			{
+				dirs.add(dir);
+			}
+		}
+		return dirs;
+	}
+
+	/**
+	 * Get the committed generations, newest first
+	 */
+	private List<String> readGenerations()
+	{
+		List<String> generations = new ArrayList<>();
+		try
+		{
+			for (String line : Files.readAllLines(new File(root, CURRENT).toPath(), StandardCharsets.UTF_8))
+			{
+				if (!line.trim().isEmpty())
+				{
+					generations.add(line.trim());
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			log.debug("no current generation in {}", root);
+		}
+		return generations;
+	}
+
+	/**
+	 * Get the bootstrap a generation was synced from
+	 *
+	 * @return the bootstrap, or null if it isn't known
+	 */
+	Bootstrap getBootstrap(File generation)
+	{
+		try (Reader in = new InputStreamReader(new FileInputStream(new File(generation, BOOTSTRAP)), StandardCharsets.UTF_8))
+		{
+			return new Gson().fromJson(in, Bootstrap.class);
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.debug("unable to read bootstrap of {}", generation, ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Record the bootstrap a generation was synced from
+	 */
+	void saveBootstrap(File generation, Bootstrap bootstrap) throws IOException
+	{
+		File tmp = File.createTempFile(BOOTSTRAP, ".tmp", root);
+		try (Writer out = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))
+		{
+			new Gson().toJson(bootstrap, out);
+		}
+		move(tmp, new File(generation, BOOTSTRAP));
+	}
+
+	/**
+	 * Check if the current generation holds exactly the given artifacts. With the hash index this only
+	 * costs a stat of each file, and files which do need hashing are hashed in parallel.
+	 */
+	boolean isCurrent(List<Artifact> artifacts, HashIndex hashIndex)
+	{
+		File current = getCurrent();
+		return current != null && isComplete(current, artifacts, hashIndex);
+	}
+
+	/**
+	 * Find a kept generation which holds exactly the given artifacts, such as the one a newer release
+	 * was rolled back from
+	 *
+	 * @return the generation, or null if none matches
+	 */
+	File find(List<Artifact> artifacts, HashIndex hashIndex)
+	{
+		for (File generation : getGenerations())
+		{
+			if (isComplete(generation, artifacts, hashIndex))
+			{
+				return generation;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Check if a generation holds exactly the given artifacts
+	 */
+	boolean isComplete(File generation, List<Artifact> artifacts, HashIndex hashIndex)
+	{
+		String[] names = generation.list((dir, name) -> !name.equals(BOOTSTRAP));
+		if (names == null || names.length != artifacts.size())
+		{
+			return false;
+		}
+
+		List<File> files = new ArrayList<>(artifacts.size());
+		for (Artifact artifact : artifacts)
+		{
+			files.add(new File(generation, artifact.getName()));
+		}
+
+		Map<File, String> hashes = hashIndex.hashAll(files);
+		for (Artifact artifact : artifacts)
+		{
+			if (!artifact.getHash().equals(hashes.get(new File(generation, artifact.getName()))))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Get the objects the kept generations use, which are the artifacts of each generation and the
+	 * bases of their diffs
+	 */
+	Set<String> hashes()
+	{
+		Set<String> hashes = new HashSet<>();
+		for (File generation : getGenerations())
+		{
+			hashes.addAll(hashes(generation));
+		}
+		return hashes;
+	}
+
+	/**
+	 * Get the objects a generation uses
+	 */
+	Set<String> hashes(File generation)
+	{
+		Set<String> hashes = new HashSet<>();
+		Bootstrap bootstrap = getBootstrap(generation);
+		if (bootstrap == null || bootstrap.getArtifacts() == null)
+		{
+			return hashes;
+		}
+
+		for (Artifact artifact : bootstrap.getArtifacts())
+		{
+			hashes.add(artifact.getHash());
+			if (artifact.getDiffs() != null)
+			{
+				for (Diff diff : artifact.getDiffs())
+				{
+					hashes.add(diff.getFromHash());
+				}
+			}
+		}
+		return hashes;
+	}
+
+	/**
+	 * Record that the client is being started from a generation
+	 */
+	void markLaunched(File generation)
+	{
+		Map<String, Long> launched = readLaunched();
+		launched.put(generation.getName(), System.currentTimeMillis());
+		writeLaunched(launched);
+	}
+
+	/**
+	 * Get when a generation was last launched, or committed if it hasn't been launched since
+	 */
+	long getLastLaunched(File generation)
+	{
+		Long time = readLaunched().get(generation.getName());
+		return time != null ? time : generation.lastModified();
+	}
+
+	private Map<String, Long> readLaunched()
+	{
+		try (Reader in = new InputStreamReader(new FileInputStream(new File(root, LAUNCHED)), StandardCharsets.UTF_8))
+		{
+			Map<String, Long> launched = new Gson().fromJson(in, LAUNCHED_TYPE);
+			if (launched != null)
+			{
+				return new HashMap<>(launched);
+			}
+		}
+		catch (FileNotFoundException ex)
+		{
+			log.debug("no launch times in {}", root);
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("unable to read launch times of {}", root, ex);
+		}
+		return new HashMap<>();
+	}
+
+	private void writeLaunched(Map<String, Long> launched)
+	{
+		try
+		{
+			File tmp = File.createTempFile(LAUNCHED, ".tmp", root);
+			try (Writer out = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))
+			{
+				new Gson().toJson(launched, LAUNCHED_TYPE, out);
+			}
+			move(tmp, new File(root, LAUNCHED));
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save launch times of {}", root, ex);
+		}
+	}
+
+	/**
+	 * Remove generations left behind by an interrupted sync, or which are no longer kept. Committed
+	 * generations are complete by construction, so nothing in them needs to be checked.
+	 */
+	void recover()
+	{
+		try (Closeable lock = lock())
+		{
+			List<String> generations = readGenerations();
+			File[] files = root.listFiles();
+			if (files == null)
+			{
+				return;
+			}
+
+			for (File file : files)
+			{
+				if (file.isDirectory() && !generations.contains(file.getName()))
+				{
+					log.debug("Removing stale generation {}", file);
+					deleteRecursively(file);
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to lock {}", root, ex);
+		}
+	}
+
+	/**
+	 * Create the directory for a new generation
+	 */
+	File stage() throws IOException
+	{
+		int next = 1;
+		File[] dirs = root.listFiles(File::isDirectory);
+		if (dirs != null)
+		{
+			for (File dir : dirs)
+			{
+				try
+				{
+					next = Math.max(next, Integer.parseInt(dir.getName()) + 1);
+				}
+				catch (NumberFormatException ignored)
+				{
+				}
+			}
+		}
+
+		File staging = new File(root, Integer.toString(next));
+		if (!staging.mkdirs())
+		{
+			throw new IOException("unable to create generation directory " + staging);
+		}
+		return staging;
+	}
+
+	/**
+	 * Make a fully verified generation the current one, and remove everything else in the repository
+	 * except the kept generations. The generation may be a new one or an older one which is kept.
+	 */
+	void commit(File generation, Bootstrap bootstrap) throws IOException
+	{
+		saveBootstrap(generation, bootstrap);
+
+		List<String> generations = readGenerations();
+		generations.remove(generation.getName());
+		generations.add(0, generation.getName());
+		while (generations.size() > keepGenerations)
+		{
+			generations.remove(generations.size() - 1);
+		}
+
+		writeGenerations(generations);
+		log.debug("Switched {} to generation {}", root, generation.getName());
+
+		// a generation counts as launched when it is committed, so it isn't evicted before its first launch
+		Map<String, Long> launched = readLaunched();
+		launched.put(generation.getName(), System.currentTimeMillis());
+		prune(generations, launched);
+	}
+
+	/**
+	 * Remove kept generations to free disk space. The repository lock must be held.
+	 */
+	void evict(Collection<String> names) throws IOException
+	{
+		List<String> generations = readGenerations();
+		generations.removeAll(names);
+		writeGenerations(generations);
+		log.info("Evicted generations {} of {}", names, root);
+
+		prune(generations, readLaunched());
+	}
+
+	private void writeGenerations(List<String> generations) throws IOException
+	{
+		File tmp = File.createTempFile(CURRENT, ".tmp", root);
+		Files.write(tmp.toPath(), generations, StandardCharsets.UTF_8);
+		move(tmp, new File(root, CURRENT));
+	}
+
+	/**
+	 * Remove everything in the repository except the given generations
+	 */
+	private void prune(List<String> generations, Map<String, Long> launched)
+	{
+		launched.keySet().retainAll(generations);
+		writeLaunched(launched);
+
+		// Older generations, and the loose artifacts from before generations, are in the store now
+		Set<String> keep = new HashSet<>(generations);
+		keep.add(CURRENT);
+		keep.add(LOCK);
+		keep.add(LAUNCHED);
+
+		File[] files = root.listFiles();
+		if (files != null)
+		{
+			for (File file : files)
+			{
+				if (!keep.contains(file.getName()))
+				{
+					deleteRecursively(file);
+				}
+			}
+		}
+	}
+
+	private static void move(File from, File to) throws IOException
+	{
+		try
+		{
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex)
+		{
+			log.debug("atomic move not supported", ex);
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void deleteRecursively(File file)
+	{
+		try
+		{
+			Files.walkFileTree(file.toPath(), new SimpleFileVisitor<Path>()
+			{
+				@Override
+				public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException
+				{
+					Files.delete(path);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException
+				{
+					Files.delete(dir);
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+		catch (IOException ex)
+		{
+			// files of a running client can't be deleted on Windows, they are retried on the next launch
+			log.debug("Unable to delete {}", file, ex);
+		}
+	}
+}
@@ -0,0 +1,695 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.hash.HashCode;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Downloads a file which is verified by its sha-256 hash, keeping the partially downloaded data in
+ * {@code RUNELITE_DIR/downloads} so that an interrupted download can be continued with a range request,
+ * either by retrying or on the next launch. Large files are downloaded in chunks over several connections,
+ * spread over the mirrors of the url, and written at their offsets into a preallocated file. Which chunks
+ * are complete is kept with the partial data, and the whole file is hashed once it is assembled.
+ * <p>
+ * The partial data of a hash belongs to one download at a time, across all launcher processes, by a lock
+ * on {@code <hash>.lock}. A download which finds it held doesn't wait for the other one, which may be a
+ * throttled background sync, but downloads to private files which are not kept for resuming.
+ */
+@Slf4j
+class ResumableDownload
+{
+	private static final File DOWNLOADS_DIR = new File(Launcher.RUNELITE_DIR, "downloads");
+	private static final long STALE_PARTIAL_AGE = TimeUnit.DAYS.toMillis(7);
+
+	// files at least this large are downloaded in chunks
+	private static final long SEGMENT_THRESHOLD = 16 * 1024 * 1024;
+	private static final long CHUNK_SIZE = 4 * 1024 * 1024;
+	// connections per chunked download
+	private static final int SEGMENT_CONNECTIONS = 4;
+
+	// file locks are held by the whole process, so downloads in this process are excluded separately
+	private static final Set<String> locked = ConcurrentHashMap.newKeySet();
+
+	private static final ExecutorService SEGMENT_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+		.setNameFormat("download-segment-%d")
+		.setDaemon(true)
+		.build());
+
+	private final String url;
+	// the url and its mirrors, best first
+	private final List<String> candidates;
+	private final String hash;
+	private final File dest;
+	private File partial;
+	private File sidecar;
+
+	private LongConsumer progress = (completed) -> {};
+
+	/**
+	 * total size of the file, including any resumed data. -1 if unknown.
+	 */
+	@Getter
+	private volatile long contentLength = -1;
+
+	// bytes received by the current attempt
+	private final AtomicLong received = new AtomicLong();
+
+	ResumableDownload(String url, String hash, File dest)
+	{
+		this.url = url;
+		this.candidates = Mirrors.shared().candidates(url);
+		this.hash = hash;
+		this.dest = dest;
+		this.partial = new File(DOWNLOADS_DIR, hash + ".part");
+		this.sidecar = new File(DOWNLOADS_DIR, hash + ".json");
+	}
+
+	ResumableDownload progress(LongConsumer progress)
+	{
+		this.progress = progress;
+		return this;
+	}
+
+	void download() throws IOException, VerificationException
+	{
+		if (!DOWNLOADS_DIR.exists() && !DOWNLOADS_DIR.mkdirs())
+		{
+			throw new IOException("unable to create download directory " + DOWNLOADS_DIR);
+		}
+
+		cleanStale();
+
+		try (Closeable lock = tryLock())
+		{
+			if (lock != null)
+			{
+				downloadWithRetries();
+				return;
+			}
+
+			log.debug("{} is already being downloaded, downloading to a private file", url);
+			partial = File.createTempFile(hash + "-", ".part", DOWNLOADS_DIR);
+			sidecar = new File(DOWNLOADS_DIR, partial.getName().replace(".part", ".json"));
+			try
+			{
+				downloadWithRetries();
+			}
+			finally
+			{
+				discard();
+			}
+		}
+	}
+
+	private void downloadWithRetries() throws IOException, VerificationException
+	{
+		int mirror = 0;
+		for (int attempt = 1; ; )
+		{
+			String source = candidates.get(mirror);
+			received.set(0);
+			try
+			{
+				attempt(source);
+				return;
+			}
+			catch (IOException ex)
+			{
+				// a mirror which fails is swapped for the next one, which continues the download if it serves the same file
+				if (mirror + 1 < candidates.size() && !(ex instanceof DownloadStoppedException))
+				{
+					Mirrors.shared().failed(source);
+					++mirror;
+					log.warn("download from {} failed, trying {}", source, candidates.get(mirror), ex);
+					continue;
+				}
+
+				// an attempt which got further doesn't count against the limit
+				attempt = received.get() > 0 ? 1 : attempt + 1;
+				if (attempt > RetryPolicy.getMaxAttempts() || !RetryPolicy.isRetryable(ex))
+				{
+					throw ex;
+				}
+
+				RetryPolicy.backoff(url, attempt - 1, ex);
+				mirror = 0;
+			}
+		}
+	}
+
+	private void attempt(String source) throws IOException, VerificationException
+	{
+		MessageDigest digest = sha256();
+		State state = readState();
+		long offset = 0;
+
+		if (state != null && state.done != null && partial.exists())
+		{
+			downloadChunks(state);
+			finish(HashService.sha256(partial));
+			return;
+		}
+
+		if (state != null && partial.exists())
+		{
+			offset = partial.length();
+			// The digest state can't be persisted, so rehash what was already downloaded
+			try (InputStream in = new FileInputStream(partial))
+			{
+				byte[] buffer = new byte[1024 * 1024];
+				int i;
+				while ((i = in.read(buffer)) != -1)
+				{
+					digest.update(buffer, 0, i);
+				}
+			}
+		}
+
+		Map<String, String> headers = new HashMap<>();
+		// an open range on a fresh download tells whether the server can serve chunks
+		headers.put("Range", "bytes=" + offset + "-");
+		if (offset > 0)
+		{
+			addIfRange(headers, state, source);
+		}
+
+		long resumeFrom = offset;
+		State resumed = state;
+		State chunked = HttpRequestManager.shared().fetch(source, headers, conn -> receive(conn, source, digest, resumeFrom, resumed));
+		if (chunked != null)
+		{
+			downloadChunks(chunked);
+			finish(HashService.sha256(partial));
+			return;
+		}
+		finish(HashCode.fromBytes(digest.digest()).toString());
+	}
+
+	/**
+	 * Read a whole response into the partial file
+	 *
+	 * @return the state of a chunked download, if the file is large enough to be downloaded in chunks
+	 * instead. The response body isn't read then.
+	 */
+	private State receive(HttpURLConnection conn, String source, MessageDigest digest, long offset, State resumed) throws IOException
+	{
+		int code = conn.getResponseCode();
+		if (code == 416 && offset > 0)
+		{
+			// the partial file is already complete
+			log.debug("Range not satisfiable for {}, partial file is {} bytes", source, offset);
+			contentLength = offset;
+			return null;
+		}
+
+		HttpRequestManager.checkStatus(conn, source);
+
+		String contentRange = Objects.toString(conn.getHeaderField("Content-Range"), "");
+		boolean append = offset > 0 && code == HttpURLConnection.HTTP_PARTIAL
+			&& contentRange.startsWith("bytes " + offset + "-")
+			&& sameLength(resumed, contentRange);
+		if (append)
+		{
+			log.debug("Resuming {} at {} from {}", url, offset, source);
+		}
+		else
+		{
+			if (offset > 0)
+			{
+				log.info("{} didn't continue the partial download of {}, restarting it", source, url);
+			}
+			offset = 0;
+			digest.reset();
+		}
+
+		long length = conn.getContentLengthLong();
+		contentLength = length == -1 ? -1 : offset + length;
+
+		State state = new State();
+		state.url = url;
+		state.source = source;
+		state.length = contentLength;
+		state.etag = conn.getHeaderField("ETag");
+		state.lastModified = conn.getHeaderField("Last-Modified");
+
+		if (offset == 0 && code == HttpURLConnection.HTTP_PARTIAL && contentRange.startsWith("bytes 0-")
+			&& contentLength >= SEGMENT_THRESHOLD)
+		{
+			state.done = new boolean[(int) ((contentLength + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+			try (RandomAccessFile file = new RandomAccessFile(partial, "rw"))
+			{
+				file.setLength(contentLength);
+			}
+			writeState(state);
+			log.debug("Downloading {} in {} chunks", url, state.done.length);
+			return state;
+		}
+
+		writeState(state);
+
+		long downloaded = offset;
+		progress.accept(downloaded);
+
+		long start = System.nanoTime();
+		try (InputStream in = conn.getInputStream();
+			OutputStream out = new FileOutputStream(partial, append))
+		{
+			StallDetector stall = new StallDetector();
+			byte[] buffer = new byte[1024 * 1024];
+			int i;
+			while ((i = stall.read(in, buffer, 0, buffer.length)) != -1)
+			{
+				BandwidthLimiter.shared().acquire(i);
+				out.write(buffer, 0, i);
+				digest.update(buffer, 0, i);
+				downloaded += i;
+				received.addAndGet(i);
+				progress.accept(downloaded);
+			}
+		}
+		Mirrors.shared().downloaded(source, downloaded - offset, System.nanoTime() - start);
+		return null;
+	}
+
+	/**
+	 * Download the chunks which aren't complete yet. Each connection starts on its own mirror and takes
+	 * chunks from a shared queue, so faster mirrors end up serving more of the file.
+	 */
+	private void downloadChunks(State state) throws IOException
+	{
+		contentLength = state.length;
+
+		Queue<Integer> queue = new ConcurrentLinkedQueue<>();
+		long complete = 0;
+		for (int i = 0; i < state.done.length; ++i)
+		{
+			if (state.done[i])
+			{
+				complete += chunkEnd(state, i) - i * CHUNK_SIZE;
+			}
+			else
+			{
+				queue.add(i);
+			}
+		}
+
+		AtomicLong downloaded = new AtomicLong(complete);
+		progress.accept(complete);
+
+		int connections = Math.min(SEGMENT_CONNECTIONS, queue.size());
+		try (FileChannel channel = FileChannel.open(partial.toPath(), StandardOpenOption.WRITE))
+		{
+			List<CompletableFuture<Void>> futures = new ArrayList<>(connections);
+			for (int c = 0; c < connections; ++c)
+			{
+				int first = c % candidates.size();
+				futures.add(CompletableFuture.runAsync(() ->
+				{
+					try
+					{
+						downloadChunks(state, queue, first, channel, downloaded);
+					}
+					catch (IOException ex)
+					{
+						throw new UncheckedIOException(ex);
+					}
+				}, SEGMENT_EXECUTOR));
+			}
+
+			HttpRequestManager.join(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])));
+		}
+	}
+
+	private void downloadChunks(State state, Queue<Integer> queue, int mirror, FileChannel channel, AtomicLong downloaded) throws IOException
+	{
+		int failures = 0;
+		Integer chunk;
+		while ((chunk = queue.poll()) != null)
+		{
+			String source = candidates.get(mirror);
+			try
+			{
+				downloadChunk(state, chunk, source, channel, downloaded);
+				failures = 0;
+			}
+			catch (DownloadStoppedException ex)
+			{
+				throw ex;
+			}
+			catch (IOException ex)
+			{
+				// give the chunk to the other connections, and try it on the next mirror
+				queue.add(chunk);
+				Mirrors.shared().failed(source);
+				// every mirror gets a try before the retry policy applies
+				++failures;
+				if (failures >= candidates.size())
+				{
+					int attempt = failures - candidates.size() + 1;
+					if (attempt >= RetryPolicy.getMaxAttempts() || !RetryPolicy.isRetryable(ex))
+					{
+						throw ex;
+					}
+					RetryPolicy.backoff("chunk " + chunk + " of " + url, attempt, ex);
+				}
+
+				mirror = (mirror + 1) % candidates.size();
+				log.debug("chunk {} of {} failed, switching to {}", chunk, url, candidates.get(mirror), ex);
+			}
+		}
+	}
+
+	private void downloadChunk(State state, int chunk, String source, FileChannel channel, AtomicLong downloaded) throws IOException
+	{
+		long start = chunk * CHUNK_SIZE;
+		long end = chunkEnd(state, chunk);
+
+		Map<String, String> headers = new HashMap<>();
+		headers.put("Range", "bytes=" + start + "-" + (end - 1));
+		addIfRange(headers, state, source);
+
+		long begin = System.nanoTime();
+		HttpRequestManager.shared().fetch(source, headers, conn ->
+		{
+			HttpRequestManager.checkStatus(conn, source);
+			String contentRange = Objects.toString(conn.getHeaderField("Content-Range"), "");
+			if (conn.getResponseCode() != HttpURLConnection.HTTP_PARTIAL
+				|| !contentRange.startsWith("bytes " + start + "-")
+				|| !sameLength(state, contentRange))
+			{
+				// the file changed since the download started, or the server stopped serving ranges
+				throw new IOException("no range response for chunk " + chunk + " of " + source);
+			}
+
+			long position = start;
+			long written = 0;
+			try (InputStream in = conn.getInputStream())
+			{
+				StallDetector stall = new StallDetector();
+				byte[] buffer = new byte[64 * 1024];
+				int i;
+				while (position < end && (i = stall.read(in, buffer, 0, (int) Math.min(buffer.length, end - position))) != -1)
+				{
+					BandwidthLimiter.shared().acquire(i);
+					ByteBuffer buf = ByteBuffer.wrap(buffer, 0, i);
+					while (buf.hasRemaining())
+					{
+						position += channel.write(buf, position);
+					}
+					written += i;
+					received.addAndGet(i);
+					progress.accept(downloaded.addAndGet(i));
+				}
+			}
+			catch (IOException ex)
+			{
+				// the chunk is downloaded again from the start
+				downloaded.addAndGet(-written);
+				throw ex;
+			}
+
+			if (position != end)
+			{
+				downloaded.addAndGet(-written);
+				throw new IOException("chunk " + chunk + " of " + source + " ended at " + position + ", expected " + end);
+			}
+			return null;
+		});
+		Mirrors.shared().downloaded(source, end - start, System.nanoTime() - begin);
+		markDone(state, chunk);
+	}
+
+	/**
+	 * Make a range request conditional on the file being unchanged since the download started. A validator
+	 * only means something to the server which issued it, and other mirrors would answer with the whole
+	 * file, so ranges from other mirrors are checked against the length of the file and the final hash
+	 * instead.
+	 */
+	private static void addIfRange(Map<String, String> headers, State state, String source)
+	{
+		if (!source.equals(state.source))
+		{
+			return;
+		}
+
+		String validator = state.etag != null ? state.etag : state.lastModified;
+		if (validator != null)
+		{
+			headers.put("If-Range", validator);
+		}
+	}
+
+	/**
+	 * Check the total length of a range response is the length of the file being downloaded, when both
+	 * are known
+	 */
+	private static boolean sameLength(State state, String contentRange)
+	{
+		int slash = contentRange.lastIndexOf('/');
+		if (state == null || state.length <= 0 || slash == -1)
+		{
+			return true;
+		}
+
+		try
+		{
+			return Long.parseLong(contentRange.substring(slash + 1).trim()) == state.length;
+		}
+		catch (NumberFormatException ex)
+		{
+			// the total is *, unknown
+			return true;
+		}
+	}
+
+	private static long chunkEnd(State state, int chunk)
+	{
+		return Math.min(state.length, (chunk + 1) * CHUNK_SIZE);
+	}
+
+	private synchronized void markDone(State state, int chunk) throws IOException
+	{
+		state.done[chunk] = true;
+		writeState(state);
+	}
+
+	private void finish(String got) throws IOException, VerificationException
+	{
+		if (!hash.equalsIgnoreCase(got))
+		{
+			// the partial data is bad, start over next time
+			discard();
+			throw new VerificationException("Unable to verify resource " + url + " - expected " + hash + " got " + got);
+		}
+
+		try
+		{
+			Files.move(partial.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex)
+		{
+			log.debug("atomic move not supported", ex);
+			Files.move(partial.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		sidecar.delete();
+	}
+
+	private void discard()
+	{
+		partial.delete();
+		sidecar.delete();
+	}
+
+	private State readState()
+	{
+		try (Reader in = new InputStreamReader(new FileInputStream(sidecar), StandardCharsets.UTF_8))
+		{
+			return new Gson().fromJson(in, State.class);
+		}
+		catch (FileNotFoundException ex)
+		{
+			return null;
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.debug("unable to read download state {}", sidecar, ex);
+			discard();
+			return null;
+		}
+	}
+
+	private void writeState(State state) throws IOException
+	{
+		try (Writer out = new OutputStreamWriter(new FileOutputStream(sidecar), StandardCharsets.UTF_8))
+		{
+			new Gson().toJson(state, out);
+		}
+	}
+
+	/**
+	 * Take the lock on the partial data of this hash, unless another download in this or another launcher
+	 * process holds it
+	 *
+	 * @return closing it releases the lock, or null if the lock is held
+	 */
+	private Closeable tryLock() throws IOException
+	{
+		if (!locked.add(hash))
+		{
+			return null;
+		}
+
+		try
+		{
+			File file = new File(DOWNLOADS_DIR, hash + ".lock");
+			FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			FileLock lock;
+			try
+			{
+				lock = channel.tryLock();
+			}
+			catch (IOException ex)
+			{
+				channel.close();
+				throw ex;
+			}
+
+			if (lock == null)
+			{
+				channel.close();
+				locked.remove(hash);
+				return null;
+			}
+
+			// keeps the lock file from being cleaned up as stale while it is in use
+			file.setLastModified(System.currentTimeMillis());
+			return () ->
+			{
+				try
+				{
+					// closing the channel releases the file lock
+					channel.close();
+				}
+				finally
+				{
+					locked.remove(hash);
+				}
+			};
+		}
+		catch (IOException ex)
+		{
+			locked.remove(hash);
+			throw ex;
+		}
+	}
+
+	private static void cleanStale()
+	{
+		File[] files = DOWNLOADS_DIR.listFiles();
+		if (files == null)
+		{
+			return;
+		}
+
+		long cutoff = System.currentTimeMillis() - STALE_PARTIAL_AGE;
+		for (File file : files)
+		{
+			if (file.isFile() && file.lastModified() < cutoff && file.delete())
+			{
+				log.debug("Deleted stale partial download {}", file);
+			}
+		}
+	}
+
+	private static MessageDigest sha256()
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex)
+		{
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static class State
+	{
+		String url;
+		// the mirror the validators are from
+		String source;
+		String etag;
+		String lastModified;
+		// total length of the file, if it is known
+		long length;
+		// set for chunked downloads
+		boolean[] done;
+	}
+}
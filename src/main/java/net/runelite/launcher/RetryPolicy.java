@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * How failed requests are retried: exponential backoff with full jitter, capped, and the server's
+ * {@code Retry-After} when it sends one. Errors which can't succeed on a retry, such as a 404, fail at
+ * once. Each retry is logged with its cause so failures can be diagnosed from the launcher log.
+ */
+@Slf4j
+class RetryPolicy
+{
+	private static final long BASE_DELAY = 500;
+	private static final long MAX_DELAY = 30_000;
+	// Retry-After beyond this fails the request instead of hanging the launch
+	private static final long MAX_RETRY_AFTER = 120_000;
+
+	private static volatile int maxAttempts = 4;
+
+	private static final AtomicInteger retries = new AtomicInteger();
+
+	@FunctionalInterface
+	interface Attempt<T>
+	{
+		T run() throws IOException;
+	}
+
+	/**
+	 * @param attempts how many times a request is made before it fails
+	 */
+	static void configure(int attempts)
+	{
+		maxAttempts = Math.max(1, attempts);
+	}
+
+	static int getMaxAttempts()
+	{
+		return maxAttempts;
+	}
+
+	/**
+	 * Run a request, retrying it while it fails with a retryable error
+	 *
+	 * @param what what the request is for, for the log
+	 */
+	static <T> T run(String what, Attempt<T> attempt) throws IOException
+	{
+		for (int n = 1; ; ++n)
+		{
+			try
+			{
+				return attempt.run();
+			}
+			catch (IOException ex)
+			{
+				if (n >= maxAttempts || !isRetryable(ex))
+				{
+					throw ex;
+				}
+				backoff(what, n, ex);
+			}
+		}
+	}
+
+	static boolean isRetryable(IOException ex)
+	{
+		if (ex instanceof DownloadStoppedException)
+		{
+			return false;
+		}
+		if (ex instanceof InterruptedIOException && Thread.currentThread().isInterrupted())
+		{
+			return false;
+		}
+		if (ex instanceof HttpStatusException)
+		{
+			HttpStatusException status = (HttpStatusException) ex;
+			return status.isRetryable() && status.getRetryAfter() <= MAX_RETRY_AFTER;
+		}
+		return true;
+	}
+
+	/**
+	 * Wait before retrying a request which failed
+	 *
+	 * @param what    what the request is for, for the log
+	 * @param attempt the attempt which failed, starting at 1
+	 * @param cause   why it failed
+	 */
+	static void backoff(String what, int attempt, IOException cause) throws InterruptedIOException
+	{
+		long delay = delay(attempt, cause);
+		int total = retries.incrementAndGet();
+		log.warn("Retry {}/{} of {} in {} ms (retry #{} this session): {}", attempt, maxAttempts - 1, what, delay, total, cause.toString());
+		log.debug("Retry cause", cause);
+
+		try
+		{
+			Thread.sleep(delay);
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while waiting to retry " + what);
+		}
+	}
+
+	static long delay(int attempt, IOException cause)
+	{
+		if (cause instanceof HttpStatusException && ((HttpStatusException) cause).getRetryAfter() >= 0)
+		{
+			return ((HttpStatusException) cause).getRetryAfter();
+		}
+
+		// jittered, so launchers which failed together don't retry together
+		long cap = Math.min(MAX_DELAY, BASE_DELAY << Math.min(attempt - 1, 16));
+		return ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+	}
+
+	/**
+	 * Get how many requests were retried by this process
+	 */
+	static int getRetries()
+	{
+		return retries.get();
+	}
+}
@@ -27,8 +27,6 @@ package net.runelite.launcher;
 import java.awt.Color;
 import java.awt.Container;
 import java.awt.Font;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
@@ -41,14 +39,13 @@ import javax.swing.JLabel;
 import javax.swing.JProgressBar;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
-import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.border.EmptyBorder;
 import javax.swing.plaf.basic.BasicProgressBarUI;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public class SplashScreen extends JFrame implements ActionListener
+public class SplashScreen extends JFrame
 {
 
 	private static final int WIDTH = 200;
@@ -59,12 +56,6 @@ public class SplashScreen extends JFrame implements ActionListener
 	private final JLabel action = new JLabel("Loading");
 	private final JProgressBar progress = new JProgressBar();
 	private final JLabel subAction = new JLabel();
-	private final Timer timer;
-
-	private volatile double overallProgress = 0;
-	private volatile String actionText = "Loading";
-	private volatile String subActionText = "";
-	private volatile String progressText = null;
 
 	private SplashScreen() throws IOException
 	{
@@ -130,22 +121,19 @@ public class SplashScreen extends JFrame implements ActionListener
 		setSize(WIDTH, y);
 		setLocationRelativeTo(null);
 
-		timer = new Timer(100, this);
-		timer.setRepeats(true);
-		timer.start();
+		ProgressModel.get().show(this::update);
 
 		setVisible(true);
 	}
 
-	@Override
-	public void actionPerformed(ActionEvent e)
+	private void update(ProgressModel.Snapshot snapshot)
 	{
-		action.setText(actionText);
-		subAction.setText(subActionText);
+		action.setText(snapshot.action);
+		subAction.setText(snapshot.subAction);
 		progress.setMaximum(1000);
-		progress.setValue((int) (overallProgress * 1000));
+		progress.setValue((int) (snapshot.progress * 1000));
 
-		String progressText = this.progressText;
+		String progressText = snapshot.transfer ? formatTransfer(snapshot) : snapshot.progressText;
 		if (progressText == null)
 		{
 			progress.setStringPainted(false);
@@ -157,6 +145,22 @@ public class SplashScreen extends JFrame implements ActionListener
 		}
 	}
 
+	private static String formatTransfer(ProgressModel.Snapshot snapshot)
+	{
+		String progress;
+		if (snapshot.mib)
+		{
+			final double MiB = 1024 * 1024;
+			final double CEIL = 1.d / 10.d;
+			progress = String.format("%.1f / %.1f MiB", snapshot.done / MiB, (snapshot.total / MiB) + CEIL);
+		}
+		else
+		{
+			progress = snapshot.done + " / " + snapshot.total;
+		}
+		return snapshot.eta < 0 ? progress : progress + " - " + snapshot.formatEta();
+	}
+
 	public static void init()
 	{
 		try
@@ -194,7 +198,7 @@ public class SplashScreen extends JFrame implements ActionListener
 				return;
 			}
 
-			INSTANCE.timer.stop();
+			ProgressModel.get().hide();
 			// The CLOSE_ALL_WINDOWS quit strategy on MacOS dispatches WINDOW_CLOSING events to each frame
 			// from Window.getWindows. However, getWindows uses weak refs and relies on gc to remove windows
 			// from its list, causing events to get dispatched to disposed frames. The frames handle the events
@@ -213,33 +217,13 @@ public class SplashScreen extends JFrame implements ActionListener
 
 	public static void stage(double startProgress, double endProgress,
 		@Nullable String actionText, String subActionText,
-		int done, int total, boolean mib)
+		long done, long total, boolean mib)
 	{
-		String progress;
-		if (mib)
-		{
-			final double MiB = 1024 * 1024;
-			final double CEIL = 1.d / 10.d;
-			progress = String.format("%.1f / %.1f MiB", done / MiB, (total / MiB) + CEIL);
-		}
-		else
-		{
-			progress = done + " / " + total;
-		}
-		stage(startProgress + ((endProgress - startProgress) * done / total), actionText, subActionText, progress);
+		ProgressModel.get().transfer(startProgress, endProgress, actionText, subActionText, done, total, mib);
 	}
 
 	public static void stage(double overallProgress, @Nullable String actionText, String subActionText, @Nullable String progressText)
 	{
-		if (INSTANCE != null)
-		{
-			INSTANCE.overallProgress = overallProgress;
-			if (actionText != null)
-			{
-				INSTANCE.actionText = actionText;
-			}
-			INSTANCE.subActionText = subActionText;
-			INSTANCE.progressText = progressText;
-		}
+		ProgressModel.get().stage(overallProgress, actionText, subActionText, progressText);
 	}
 }
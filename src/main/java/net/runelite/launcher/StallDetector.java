@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aborts a response which is still arriving but too slowly to ever finish, which the read timeout doesn't
+ * catch. Only the time spent waiting in reads is counted, so time spent in the bandwidth limiter or
+ * writing to disk doesn't look like a stall.
+ */
+class StallDetector
+{
+	// how much read time is measured at once
+	private static final long WINDOW = TimeUnit.SECONDS.toNanos(30);
+
+	private static volatile long minimumRate = 1024;
+
+	private long windowTime;
+	private long windowBytes;
+
+	/**
+	 * @param bytesPerSecond the throughput below which a response is stalled, 0 to disable
+	 */
+	static void configure(long bytesPerSecond)
+	{
+		minimumRate = bytesPerSecond;
+	}
+
+	/**
+	 * Read from a response, throwing if the response has stalled
+	 */
+	int read(InputStream in, byte[] buffer, int off, int len) throws IOException
+	{
+		long start = System.nanoTime();
+		int i = in.read(buffer, off, len);
+		windowTime += System.nanoTime() - start;
+		if (i > 0)
+		{
+			windowBytes += i;
+		}
+
+		if (windowTime >= WINDOW)
+		{
+			double rate = windowBytes * 1e9 / windowTime;
+			long min = minimumRate;
+			if (min > 0 && rate < min)
+			{
+				throw new IOException(String.format("download stalled at %.0f bytes/s, below the minimum of %d bytes/s", rate, min));
+			}
+			windowTime = 0;
+			windowBytes = 0;
+		}
+		return i;
+	}
+}
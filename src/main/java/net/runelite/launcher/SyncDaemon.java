@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.base.Throwables;
+import java.io.File;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.launcher.beans.Artifact;
+import net.runelite.launcher.beans.Bootstrap;
+
+/**
+ * Runs with {@code --sync-daemon}. Polls the bootstrap of every client type and syncs new releases into a
+ * new repository generation ahead of time, so the next launch finds its repository already up to date.
+ * Syncs only run inside the configured time window, and the bandwidth budget is charged with the bytes
+ * actually downloaded. A sync which is still running when the window closes or the budget runs out is
+ * stopped, and its partial downloads are resumed by the next sync.
+ */
+@Slf4j
+class SyncDaemon
+{
+	private static final long MB = 1024 * 1024;
+
+	private final LauncherSettings settings;
+
+	private LocalDate budgetDay;
+	// bytes the process had downloaded when the budget day started
+	private volatile long transferredAtDayStart;
+
+	SyncDaemon(LauncherSettings settings)
+	{
+		this.settings = settings;
+	}
+
+	void run()
+	{
+		long interval = TimeUnit.MINUTES.toMillis(Math.max(1, settings.syncIntervalMinutes));
+		log.info("Sync daemon started, window: {}, budget: {} MB/day, interval: {} minutes",
+			settings.syncWindow == null ? "any time" : settings.syncWindow,
+			settings.syncBudgetMb > 0 ? settings.syncBudgetMb : "unlimited",
+			settings.syncIntervalMinutes);
+
+		Thread.currentThread().setPriority(Thread.MIN_PRIORITY);
+		BandwidthLimiter.shared().stopWhen(() -> !inWindow(LocalTime.now()) || isBudgetSpent());
+		for (;;)
+		{
+			if (inWindow(LocalTime.now()))
+			{
+				syncAll();
+			}
+			else
+			{
+				log.debug("Outside of the sync window {}", settings.syncWindow);
+			}
+
+			try
+			{
+				Thread.sleep(interval);
+			}
+			catch (InterruptedException ex)
+			{
+				log.info("Sync daemon stopped");
+				return;
+			}
+		}
+	}
+
+	private void syncAll()
+	{
+		if (!LocalDate.now().equals(budgetDay))
+		{
+			budgetDay = LocalDate.now();
+			transferredAtDayStart = BandwidthLimiter.shared().getTransferred();
+		}
+
+		// a poll which fell back to the verified bootstraps doesn't mean the network is still down
+		Launcher.offline = settings.offline;
+
+		for (String name : Launcher.clientTypes.keySet())
+		{
+			String type = Launcher.toTitleCase(name);
+			try
+			{
+				sync(type);
+			}
+			catch (Exception ex)
+			{
+				if (Throwables.getCausalChain(ex).stream().anyMatch(DownloadStoppedException.class::isInstance))
+				{
+					log.info("Sync of {} stopped, {}", type, isBudgetSpent() ? "today's budget is spent" : "the sync window closed");
+					return;
+				}
+				log.warn("Sync of {} failed", type, ex);
+			}
+		}
+	}
+
+	private void sync(String type) throws Exception
+	{
+		Bootstrap bootstrap = Launcher.getBootstrap(type);
+		if (Launcher.offline)
+		{
+			log.debug("Network is unavailable, not syncing {}", type);
+			return;
+		}
+
+		List<Artifact> artifacts = Launcher.getArtifacts(bootstrap);
+		ArtifactStore store = Launcher.getArtifactStore(settings);
+
+		File repositoryDir = new File(Launcher.RUNELITE_DIR, "repository/" + type + "/");
+		repositoryDir.mkdirs();
+		Repository repository = new Repository(repositoryDir);
+		if (repository.isCurrent(artifacts, store.getHashIndex()))
+		{
+			log.debug("Repository for {} is up to date", type);
+			return;
+		}
+
+		if (isBudgetSpent())
+		{
+			log.info("Today's budget is spent, deferring the sync of {}", type);
+			return;
+		}
+
+		log.info("Staging a new generation of {}", type);
+		long transferred = BandwidthLimiter.shared().getTransferred();
+		repository.recover();
+		File location = Launcher.download(bootstrap, artifacts, settings.isNodiffs(), type, repository, store);
+		Launcher.enforceDiskBudget(settings, Collections.singletonList(location));
+		log.info("Staged {} with {} MB downloaded, the next launch will start it", type,
+			(BandwidthLimiter.shared().getTransferred() - transferred) / MB);
+	}
+
+	/**
+	 * Check if the bytes downloaded today have reached the daily budget
+	 */
+	private boolean isBudgetSpent()
+	{
+		long budget = settings.syncBudgetMb * MB;
+		return budget > 0 && BandwidthLimiter.shared().getTransferred() - transferredAtDayStart >= budget;
+	}
+
+	/**
+	 * Check if a time is inside the sync window. The window is {@code HH:mm-HH:mm} and may span midnight.
+	 */
+	private boolean inWindow(LocalTime now)
+	{
+		String window = settings.syncWindow;
+		if (window == null || window.isEmpty())
+		{
+			return true;
+		}
+
+		try
+		{
+			String[] parts = window.split("-", 2);
+			LocalTime start = LocalTime.parse(parts[0].trim());
+			LocalTime end = LocalTime.parse(parts[1].trim());
+			if (start.isBefore(end))
+			{
+				return !now.isBefore(start) && now.isBefore(end);
+			}
+			return !now.isBefore(start) || now.isBefore(end);
+		}
+		catch (DateTimeParseException | ArrayIndexOutOfBoundsException ex)
+		{
+			log.warn("invalid sync window {}, expected HH:mm-HH:mm", window);
+			return true;
+		}
+	}
+}
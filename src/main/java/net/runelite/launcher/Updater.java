@@ -43,7 +43,6 @@ import lombok.extern.slf4j.Slf4j;
 import static net.runelite.launcher.Launcher.LAUNCHER_EXECUTABLE_NAME_OSX;
 import static net.runelite.launcher.Launcher.LAUNCHER_EXECUTABLE_NAME_WIN;
 import static net.runelite.launcher.Launcher.compareVersion;
-import static net.runelite.launcher.Launcher.download;
 import static net.runelite.launcher.Launcher.regQueryString;
 import net.runelite.launcher.beans.Bootstrap;
 import net.runelite.launcher.beans.Update;
@@ -69,12 +68,45 @@ class Updater
         }
     }
 
-    private static void updateMacos(Bootstrap bootstrap, LauncherSettings launcherSettings, String[] args) {
+    /**
+     * Whether {@link #update} would try to install a launcher update from this bootstrap, which quits the
+     * launcher. A quick launch can't run the update under the client it started, so it checks this first and
+     * leaves the update to a normal start. The rollout isn't checked, so an update held back by it still makes
+     * the launches normal starts until it is rolled out.
+     */
+    static boolean isUpdatePending(Bootstrap bootstrap, LauncherSettings launcherSettings)
+    {
+        if (OS.getOs() == OS.OSType.Windows)
+        {
+            if (getInstalledWindowsCommand() == null)
+            {
+                return false;
+            }
+        }
+        else if (OS.getOs() == OS.OSType.MacOS)
+        {
+            if (getInstalledMacosPath() == null)
+            {
+                return false;
+            }
+        }
+        else
+        {
+            return false;
+        }
+
+        Update newestUpdate = findAvailableUpdate(bootstrap);
+        return newestUpdate != null && shouldAttempt(newestUpdate, launcherSettings);
+    }
 
+    /**
+     * Get the path of the launcher executable if it was started from the macOS installer
+     */
+    private static Path getInstalledMacosPath() {
         Optional<String> command = Optional.ofNullable(System.getProperty("sun.java.command"));
         if (!command.isPresent() || command.get().isEmpty()) {
             log.debug("Running process has no command");
-            return;
+            return null;
         }
 
         Path path = Paths.get(command.get());
@@ -86,25 +118,55 @@ class Updater
 
         if (!path.getFileName().toString().equals(LAUNCHER_EXECUTABLE_NAME_OSX) || !path.startsWith(RUNELITE_APP)) {
             log.debug("Skipping update check due to not running from installer, command is {}", command.get());
-            return;
+            return null;
         }
 
         log.debug("Running from installer");
+        return path;
+    }
 
-        Update newestUpdate = findAvailableUpdate(bootstrap);
-        if (newestUpdate == null) {
-            return;
+    /**
+     * Get the command of the launcher process if it was started from the Windows installer
+     */
+    private static String getInstalledWindowsCommand() {
+        String command = System.getProperty("sun.java.command", "");
+        if (command.isEmpty()) {
+            log.debug("Running process has no command");
+            return null;
+        }
+
+        String installLocation;
+
+        try {
+            installLocation = regQueryString("Software\\Microsoft\\Windows\\CurrentVersion\\Uninstall\\OpenRune Launcher_is1", "InstallLocation");
+        } catch (UnsatisfiedLinkError | RuntimeException ex) {
+            log.debug("Skipping update check, error querying install location", ex);
+            return null;
+        }
+
+        Path path = Paths.get(command);
+        if (!path.startsWith(installLocation) || !path.getFileName().toString().equals(LAUNCHER_EXECUTABLE_NAME_WIN)) {
+            log.debug("Skipping update check due to not running from installer, command is {}", command);
+            return null;
         }
 
+        log.debug("Running from installer");
+        return command;
+    }
+
+    /**
+     * Check the settings which skip an update, and the backoff after an earlier attempt at it
+     */
+    private static boolean shouldAttempt(Update newestUpdate, LauncherSettings launcherSettings) {
         final boolean noupdate = launcherSettings.isNoupdates();
         if (noupdate) {
             log.info("Skipping update {} due to noupdate being set", newestUpdate.getVersion());
-            return;
+            return false;
         }
 
         if (System.getenv("RUNELITE_UPGRADE") != null) {
             log.info("Skipping update {} due to launching from an upgrade", newestUpdate.getVersion());
-            return;
+            return false;
         }
 
         LauncherSettings settings = LauncherSettings.loadSettings();
@@ -114,6 +176,19 @@ class Updater
             log.info("Previous upgrade attempt to {} was at {} (backoff: {} hours), skipping", newestUpdate.getVersion(),
                     LocalTime.from(Instant.ofEpochMilli(settings.lastUpdateAttemptTime).atZone(ZoneId.systemDefault())),
                     hours);
+            return false;
+        }
+        return true;
+    }
+
+    private static void updateMacos(Bootstrap bootstrap, LauncherSettings launcherSettings, String[] args) {
+        Path path = getInstalledMacosPath();
+        if (path == null) {
+            return;
+        }
+
+        Update newestUpdate = findAvailableUpdate(bootstrap);
+        if (newestUpdate == null || !shouldAttempt(newestUpdate, launcherSettings)) {
             return;
         }
 
@@ -126,6 +201,7 @@ class Updater
 
         // From here and below the update will be attempted. Update settings early so a failed
         // download counts as an attempt.
+        LauncherSettings settings = LauncherSettings.loadSettings();
         settings.lastUpdateAttemptTime = System.currentTimeMillis();
         settings.lastUpdateHash = newestUpdate.getHash();
         settings.lastUpdateAttemptNum++;
@@ -135,18 +211,16 @@ class Updater
             log.info("Downloading launcher {} from {}", newestUpdate.getVersion(), newestUpdate.getUrl());
 
             Path file = Files.createTempFile("rlupdate", "dmg");
-            try (OutputStream fout = Files.newOutputStream(file)) {
-                final String name = newestUpdate.getName();
-                final int size = newestUpdate.getSize();
-                try {
-                    download(newestUpdate.getUrl(), newestUpdate.getHash(), (completed) ->
-                                    SplashScreen.stage(.07, 1., null, name, completed, size, true),
-                            fout);
-                } catch (VerificationException e) {
-                    log.error("Unable to verify update", e);
-                    Files.deleteIfExists(file);
-                    return;
-                }
+            final String name = newestUpdate.getName();
+            final long size = newestUpdate.getSize();
+            try {
+                new ResumableDownload(newestUpdate.getUrl(), newestUpdate.getHash(), file.toFile())
+                        .progress((completed) -> SplashScreen.stage(.07, 1., null, name, completed, size, true))
+                        .download();
+            } catch (VerificationException e) {
+                log.error("Unable to verify update", e);
+                Files.deleteIfExists(file);
+                return;
             }
 
             log.debug("Mounting dmg {}", file);
@@ -246,51 +320,13 @@ class Updater
     }
 
     private static void updateWindows(Bootstrap bootstrap, LauncherSettings launcherSettings, String[] args) {
-        String command = System.getProperty("sun.java.command", "");
-        if (command.isEmpty()) {
-            log.debug("Running process has no command");
-            return;
-        }
-
-        String installLocation;
-
-        try {
-            installLocation = regQueryString("Software\\Microsoft\\Windows\\CurrentVersion\\Uninstall\\OpenRune Launcher_is1", "InstallLocation");
-        } catch (UnsatisfiedLinkError | RuntimeException ex) {
-            log.debug("Skipping update check, error querying install location", ex);
-            return;
-        }
-
-        Path path = Paths.get(command);
-        if (!path.startsWith(installLocation) || !path.getFileName().toString().equals(LAUNCHER_EXECUTABLE_NAME_WIN)) {
-            log.debug("Skipping update check due to not running from installer, command is {}", command);
+        String command = getInstalledWindowsCommand();
+        if (command == null) {
             return;
         }
 
-        log.debug("Running from installer");
-
         Update newestUpdate = findAvailableUpdate(bootstrap);
-        if (newestUpdate == null) {
-            return;
-        }
-
-        final boolean noupdate = launcherSettings.isNoupdates();
-        if (noupdate) {
-            log.info("Skipping update {} due to noupdate being set", newestUpdate.getVersion());
-            return;
-        }
-
-        if (System.getenv("RUNELITE_UPGRADE") != null) {
-            log.info("Skipping update {} due to launching from an upgrade", newestUpdate.getVersion());
-            return;
-        }
-
-        LauncherSettings settings = LauncherSettings.loadSettings();
-        int hours = 1 << Math.min(9, settings.lastUpdateAttemptNum); // 512 hours = ~21 days
-        if (newestUpdate.getHash().equals(settings.lastUpdateHash) &&
-                Instant.ofEpochMilli(settings.lastUpdateAttemptTime).isAfter(Instant.now().minus(hours, ChronoUnit.HOURS))) {
-            log.info("Previous upgrade attempt to {} was at {} (backoff: {} hours), skipping", newestUpdate.getVersion(),
-                    LocalTime.from(Instant.ofEpochMilli(settings.lastUpdateAttemptTime).atZone(ZoneId.systemDefault())), hours);
+        if (newestUpdate == null || !shouldAttempt(newestUpdate, launcherSettings)) {
             return;
         }
 
@@ -311,6 +347,7 @@ class Updater
             return;
         }
 
+        LauncherSettings settings = LauncherSettings.loadSettings();
         settings.lastUpdateAttemptTime = System.currentTimeMillis();
         settings.lastUpdateHash = newestUpdate.getHash();
         settings.lastUpdateAttemptNum++;
@@ -320,17 +357,16 @@ class Updater
             log.info("Downloading launcher {} from {}", newestUpdate.getVersion(), newestUpdate.getUrl());
 
             Path file = Files.createTempFile("rlupdate", "exe");
-            try (OutputStream fout = Files.newOutputStream(file)) {
-                final String name = newestUpdate.getName();
-                final int size = newestUpdate.getSize();
-                try {
-                    download(newestUpdate.getUrl(), newestUpdate.getHash(), (completed) ->
-                            SplashScreen.stage(.07, 1., null, name, completed, size, true), fout);
-                } catch (VerificationException e) {
-                    log.error("unable to verify update", e);
-                    file.toFile().delete();
-                    return;
-                }
+            final String name = newestUpdate.getName();
+            final long size = newestUpdate.getSize();
+            try {
+                new ResumableDownload(newestUpdate.getUrl(), newestUpdate.getHash(), file.toFile())
+                        .progress((completed) -> SplashScreen.stage(.07, 1., null, name, completed, size, true))
+                        .download();
+            } catch (VerificationException e) {
+                log.error("unable to verify update", e);
+                file.toFile().delete();
+                return;
             }
 
             log.info("Launching installer version {}", newestUpdate.getVersion());
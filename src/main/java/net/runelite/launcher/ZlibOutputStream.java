@@ -0,0 +1,1422 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+/*
+ * This file is altered from deflate.c and trees.c of zlib 1.2.11: it is a translation to Java of the
+ * deflate compressor, and is not the original software. The notice of the original follows.
+ *
+ * Copyright (C) 1995-2017 Jean-loup Gailly and Mark Adler
+ *
+ * This software is provided 'as-is', without any express or implied
+ * warranty.  In no event will the authors be held liable for any damages
+ * arising from the use of this software.
+ *
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it
+ * freely, subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not
+ *    claim that you wrote the original software. If you use this software
+ *    in a product, an acknowledgment in the product documentation would be
+ *    appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be
+ *    misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ *
+ * Jean-loup Gailly        Mark Adler
+ * jloup@gzip.org          madler@alumni.caltech.edu
+ */
+package net.runelite.launcher;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.Adler32;
+
+/**
+ * The deflate compressor of zlib 1.2.11, altered into Java, for when the JRE's zlib isn't compatible with
+ * the one archive-patcher patches are made with. Some Linux distributions build their JRE against a
+ * patched or reimplemented zlib which compresses differently, and recompressing with it would never
+ * reproduce the original archive. This produces the same output as the reference zlib for levels 1 to 9,
+ * the default, filtered and huffman only strategies, and both the zlib and raw formats, with the default
+ * 15 bit window and memory level 8 which {@link java.util.zip.Deflater} uses.
+ * <p>
+ * The structure and names follow deflate.c and trees.c so the two can be compared side by side.
+ */
+class ZlibOutputStream extends FilterOutputStream
+{
+	static final int DEFAULT_STRATEGY = 0;
+	static final int FILTERED = 1;
+	static final int HUFFMAN_ONLY = 2;
+
+	private static final int MAX_WBITS = 15;
+	private static final int W_SIZE = 1 << MAX_WBITS;
+	private static final int W_MASK = W_SIZE - 1;
+	private static final int WINDOW_SIZE = 2 * W_SIZE;
+	private static final int MEM_LEVEL = 8;
+	private static final int HASH_BITS = MEM_LEVEL + 7;
+	private static final int HASH_SIZE = 1 << HASH_BITS;
+	private static final int HASH_MASK = HASH_SIZE - 1;
+	private static final int MIN_MATCH = 3;
+	private static final int MAX_MATCH = 258;
+	private static final int HASH_SHIFT = (HASH_BITS + MIN_MATCH - 1) / MIN_MATCH;
+	private static final int MIN_LOOKAHEAD = MAX_MATCH + MIN_MATCH + 1;
+	private static final int MAX_DIST = W_SIZE - MIN_LOOKAHEAD;
+	private static final int WIN_INIT = MAX_MATCH;
+	private static final int TOO_FAR = 4096;
+	private static final int NIL = 0;
+	private static final int LIT_BUFSIZE = 1 << (MEM_LEVEL + 6);
+
+	// good_length, max_lazy, nice_length, max_chain of each level
+	private static final int[][] CONFIGURATION_TABLE = {
+		{0, 0, 0, 0},
+		{4, 4, 8, 4},
+		{4, 5, 16, 8},
+		{4, 6, 32, 32},
+		{4, 4, 16, 16},
+		{8, 16, 32, 32},
+		{8, 16, 128, 128},
+		{8, 32, 128, 256},
+		{32, 128, 258, 1024},
+		{32, 258, 258, 4096},
+	};
+
+	private static final int MAX_BITS = 15;
+	private static final int MAX_BL_BITS = 7;
+	private static final int END_BLOCK = 256;
+	private static final int REP_3_6 = 16;
+	private static final int REPZ_3_10 = 17;
+	private static final int REPZ_11_138 = 18;
+	private static final int LENGTH_CODES = 29;
+	private static final int LITERALS = 256;
+	private static final int L_CODES = LITERALS + 1 + LENGTH_CODES;
+	private static final int D_CODES = 30;
+	private static final int BL_CODES = 19;
+	private static final int HEAP_SIZE = 2 * L_CODES + 1;
+	private static final int SMALLEST = 1;
+
+	private static final int STORED_BLOCK = 0;
+	private static final int STATIC_TREES = 1;
+	private static final int DYN_TREES = 2;
+
+	private static final int[] EXTRA_LBITS = {0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 4, 5, 5, 5, 5, 0};
+	private static final int[] EXTRA_DBITS = {0, 0, 0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6, 7, 7, 8, 8, 9, 9, 10, 10, 11, 11, 12, 12, 13, 13};
+	private static final int[] EXTRA_BLBITS = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 2, 3, 7};
+	private static final int[] BL_ORDER = {16, 17, 18, 0, 8, 7, 9, 6, 10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15};
+
+	private static final int[] STATIC_LTREE_CODE = new int[L_CODES + 2];
+	private static final int[] STATIC_LTREE_LEN = new int[L_CODES + 2];
+	private static final int[] STATIC_DTREE_CODE = new int[D_CODES];
+	private static final int[] STATIC_DTREE_LEN = new int[D_CODES];
+	private static final int[] DIST_CODE = new int[512];
+	private static final int[] LENGTH_CODE = new int[MAX_MATCH - MIN_MATCH + 1];
+	private static final int[] BASE_LENGTH = new int[LENGTH_CODES];
+	private static final int[] BASE_DIST = new int[D_CODES];
+
+	private static final StaticTreeDesc STATIC_L_DESC = new StaticTreeDesc(STATIC_LTREE_LEN, EXTRA_LBITS, LITERALS + 1, L_CODES, MAX_BITS);
+	private static final StaticTreeDesc STATIC_D_DESC = new StaticTreeDesc(STATIC_DTREE_LEN, EXTRA_DBITS, 0, D_CODES, MAX_BITS);
+	private static final StaticTreeDesc STATIC_BL_DESC = new StaticTreeDesc(null, EXTRA_BLBITS, 0, BL_CODES, MAX_BL_BITS);
+
+	static
+	{
+		// tr_static_init
+		int length = 0;
+		int code;
+		for (code = 0; code < LENGTH_CODES - 1; code++)
+		{
+			BASE_LENGTH[code] = length;
+			for (int n = 0; n < (1 << EXTRA_LBITS[code]); n++)
+			{
+				LENGTH_CODE[length++] = code;
+			}
+		}
+		// length 258 can be code 284 + 5 bits or code 285, and the latter is shorter
+		LENGTH_CODE[length - 1] = code;
+
+		int dist = 0;
+		for (code = 0; code < 16; code++)
+		{
+			BASE_DIST[code] = dist;
+			for (int n = 0; n < (1 << EXTRA_DBITS[code]); n++)
+			{
+				DIST_CODE[dist++] = code;
+			}
+		}
+		// from now on, all distances are divided by 128
+		dist >>= 7;
+		for (; code < D_CODES; code++)
+		{
+			BASE_DIST[code] = dist << 7;
+			for (int n = 0; n < (1 << (EXTRA_DBITS[code] - 7)); n++)
+			{
+				DIST_CODE[256 + dist++] = code;
+			}
+		}
+
+		int[] blCount = new int[MAX_BITS + 1];
+		int n = 0;
+		while (n <= 143)
+		{
+			STATIC_LTREE_LEN[n++] = 8;
+			blCount[8]++;
+		}
+		while (n <= 255)
+		{
+			STATIC_LTREE_LEN[n++] = 9;
+			blCount[9]++;
+		}
+		while (n <= 279)
+		{
+			STATIC_LTREE_LEN[n++] = 7;
+			blCount[7]++;
+		}
+		while (n <= 287)
+		{
+			STATIC_LTREE_LEN[n++] = 8;
+			blCount[8]++;
+		}
+		genCodes(STATIC_LTREE_CODE, STATIC_LTREE_LEN, L_CODES + 1, blCount);
+
+		for (n = 0; n < D_CODES; n++)
+		{
+			STATIC_DTREE_LEN[n] = 5;
+			STATIC_DTREE_CODE[n] = biReverse(n, 5);
+		}
+	}
+
+	private final int level;
+	private final int strategy;
+	private final boolean nowrap;
+	private final int goodMatch;
+	private final int maxLazyMatch;
+	private final int niceMatch;
+	private final int maxChainLength;
+
+	private final Adler32 adler = new Adler32();
+	private boolean headerWritten;
+	private boolean finished;
+
+	// the input of the current write
+	private byte[] input;
+	private int inputOffset;
+	private int inputLength;
+
+	private final byte[] window = new byte[WINDOW_SIZE];
+	private long highWater;
+	private final int[] prev = new int[W_SIZE];
+	private final int[] head = new int[HASH_SIZE];
+	private int insH;
+	private int blockStart;
+	private int matchLength = MIN_MATCH - 1;
+	private int prevMatch;
+	private boolean matchAvailable;
+	private int strStart;
+	private int matchStart;
+	private int lookahead;
+	private int prevLength = MIN_MATCH - 1;
+	private int insert;
+
+	private final Tree dynLtree = new Tree(HEAP_SIZE, STATIC_L_DESC);
+	private final Tree dynDtree = new Tree(2 * D_CODES + 1, STATIC_D_DESC);
+	private final Tree blTree = new Tree(2 * BL_CODES + 1, STATIC_BL_DESC);
+
+	private final int[] blCount = new int[MAX_BITS + 1];
+	private final int[] heap = new int[2 * L_CODES + 1];
+	private int heapLen;
+	private int heapMax;
+	private final int[] depth = new int[2 * L_CODES + 1];
+
+	private final int[] lBuf = new int[LIT_BUFSIZE];
+	private final int[] dBuf = new int[LIT_BUFSIZE];
+	private int lastLit;
+	private long optLen;
+	private long staticLen;
+
+	private int biBuf;
+	private int biValid;
+
+	// output of the current block, which is written out when the block is complete
+	private byte[] pending = new byte[64 * 1024];
+	private int pendingLength;
+
+	/**
+	 * @param out      the stream to write the compressed data to
+	 * @param level    compression level, 1 to 9
+	 * @param strategy {@link #DEFAULT_STRATEGY}, {@link #FILTERED} or {@link #HUFFMAN_ONLY}
+	 * @param nowrap   write raw deflate data without the zlib header and checksum, as in zip files
+	 */
+	ZlibOutputStream(OutputStream out, int level, int strategy, boolean nowrap)
+	{
+		super(out);
+		if (level < 1 || level > 9)
+		{
+			throw new IllegalArgumentException("unsupported level " + level);
+		}
+		if (strategy < DEFAULT_STRATEGY || strategy > HUFFMAN_ONLY)
+		{
+			throw new IllegalArgumentException("unsupported strategy " + strategy);
+		}
+
+		this.level = level;
+		this.strategy = strategy;
+		this.nowrap = nowrap;
+		int[] config = CONFIGURATION_TABLE[level];
+		goodMatch = config[0];
+		maxLazyMatch = config[1];
+		niceMatch = config[2];
+		maxChainLength = config[3];
+		initBlock();
+	}
+
+	@Override
+	public void write(int b) throws IOException
+	{
+		write(new byte[]{(byte) b}, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException
+	{
+		if (finished)
+		{
+			throw new IOException("write after finish");
+		}
+		if (len == 0)
+		{
+			return;
+		}
+		writeHeader();
+		adler.update(b, off, len);
+
+		input = b;
+		inputOffset = off;
+		inputLength = len;
+		try
+		{
+			compress(false);
+		}
+		finally
+		{
+			input = null;
+		}
+		flushPending();
+	}
+
+	/**
+	 * Finish compressing, without closing the underlying stream
+	 */
+	void finish() throws IOException
+	{
+		if (finished)
+		{
+			return;
+		}
+		writeHeader();
+		compress(true);
+		if (!nowrap)
+		{
+			putShortMSB((int) (adler.getValue() >>> 16));
+			putShortMSB((int) adler.getValue());
+		}
+		flushPending();
+		finished = true;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		finish();
+		super.close();
+	}
+
+	private void writeHeader()
+	{
+		if (nowrap || headerWritten)
+		{
+			return;
+		}
+		headerWritten = true;
+
+		// Z_DEFLATED with the window size
+		int header = (8 + ((MAX_WBITS - 8) << 4)) << 8;
+		int levelFlags;
+		if (strategy >= HUFFMAN_ONLY || level < 2)
+		{
+			levelFlags = 0;
+		}
+		else if (level < 6)
+		{
+			levelFlags = 1;
+		}
+		else if (level == 6)
+		{
+			levelFlags = 2;
+		}
+		else
+		{
+			levelFlags = 3;
+		}
+		header |= levelFlags << 6;
+		header += 31 - (header % 31);
+		putShortMSB(header);
+	}
+
+	private void compress(boolean finish) throws IOException
+	{
+		if (strategy == HUFFMAN_ONLY)
+		{
+			deflateHuff(finish);
+		}
+		else if (level <= 3)
+		{
+			deflateFast(finish);
+		}
+		else
+		{
+			deflateSlow(finish);
+		}
+	}
+
+	// deflate.c
+
+	private int readBuf(int offset, int size)
+	{
+		int len = Math.min(inputLength, size);
+		if (len == 0)
+		{
+			return 0;
+		}
+		System.arraycopy(input, inputOffset, window, offset, len);
+		inputOffset += len;
+		inputLength -= len;
+		return len;
+	}
+
+	private int updateHash(int h, int c)
+	{
+		return ((h << HASH_SHIFT) ^ c) & HASH_MASK;
+	}
+
+	/**
+	 * Insert the string at str into the dictionary
+	 *
+	 * @return the previous head of the hash chain
+	 */
+	private int insertString(int str)
+	{
+		insH = updateHash(insH, window[str + (MIN_MATCH - 1)] & 0xff);
+		int matchHead = head[insH];
+		prev[str & W_MASK] = matchHead;
+		head[insH] = str;
+		return matchHead;
+	}
+
+	private void slideHash()
+	{
+		for (int n = 0; n < HASH_SIZE; n++)
+		{
+			int m = head[n];
+			head[n] = m >= W_SIZE ? m - W_SIZE : NIL;
+		}
+		for (int n = 0; n < W_SIZE; n++)
+		{
+			int m = prev[n];
+			prev[n] = m >= W_SIZE ? m - W_SIZE : NIL;
+		}
+	}
+
+	private int longestMatch(int curMatch)
+	{
+		int chainLength = maxChainLength;
+		int scan = strStart;
+		int bestLen = prevLength;
+		int nice = niceMatch;
+		int limit = strStart > MAX_DIST ? strStart - MAX_DIST : NIL;
+		int strend = strStart + MAX_MATCH;
+		byte scanEnd1 = window[scan + bestLen - 1];
+		byte scanEnd = window[scan + bestLen];
+
+		// do not waste too much time if we already have a good match
+		if (prevLength >= goodMatch)
+		{
+			chainLength >>= 2;
+		}
+		// do not look for matches beyond the end of the input
+		if (nice > lookahead)
+		{
+			nice = lookahead;
+		}
+
+		do
+		{
+			int match = curMatch;
+			if (window[match + bestLen] != scanEnd
+				|| window[match + bestLen - 1] != scanEnd1
+				|| window[match] != window[scan]
+				|| window[++match] != window[scan + 1])
+			{
+				continue;
+			}
+
+			// the check of scan[2] is skipped since the hash of the two strings matches
+			scan += 2;
+			match++;
+			do
+			{
+			}
+			while (window[++scan] == window[++match] && window[++scan] == window[++match]
+				&& window[++scan] == window[++match] && window[++scan] == window[++match]
+				&& window[++scan] == window[++match] && window[++scan] == window[++match]
+				&& window[++scan] == window[++match] && window[++scan] == window[++match]
+				&& scan < strend);
+
+			int len = MAX_MATCH - (strend - scan);
+			scan = strend - MAX_MATCH;
+
+			if (len > bestLen)
+			{
+				matchStart = curMatch;
+				bestLen = len;
+				if (len >= nice)
+				{
+					break;
+				}
+				scanEnd1 = window[scan + bestLen - 1];
+				scanEnd = window[scan + bestLen];
+			}
+		}
+		while ((curMatch = prev[curMatch & W_MASK]) > limit && --chainLength != 0);
+
+		return Math.min(bestLen, lookahead);
+	}
+
+	private void fillWindow()
+	{
+		do
+		{
+			int more = WINDOW_SIZE - lookahead - strStart;
+
+			// slide the upper half of the window down once strstart is far enough into it
+			if (strStart >= W_SIZE + MAX_DIST)
+			{
+				System.arraycopy(window, W_SIZE, window, 0, W_SIZE - more);
+				matchStart -= W_SIZE;
+				strStart -= W_SIZE;
+				blockStart -= W_SIZE;
+				if (insert > strStart)
+				{
+					insert = strStart;
+				}
+				slideHash();
+				more += W_SIZE;
+			}
+			if (inputLength == 0)
+			{
+				break;
+			}
+
+			int n = readBuf(strStart + lookahead, more);
+			lookahead += n;
+
+			// initialize the hash value now that we have some input
+			if (lookahead + insert >= MIN_MATCH)
+			{
+				int str = strStart - insert;
+				insH = window[str] & 0xff;
+				insH = updateHash(insH, window[str + 1] & 0xff);
+				while (insert != 0)
+				{
+					insH = updateHash(insH, window[str + MIN_MATCH - 1] & 0xff);
+					prev[str & W_MASK] = head[insH];
+					head[insH] = str;
+					str++;
+					insert--;
+					if (lookahead + insert < MIN_MATCH)
+					{
+						break;
+					}
+				}
+			}
+		}
+		while (lookahead < MIN_LOOKAHEAD && inputLength != 0);
+
+		// zero the bytes after the input which longest_match may read
+		if (highWater < WINDOW_SIZE)
+		{
+			long curr = strStart + (long) lookahead;
+			if (highWater < curr)
+			{
+				int init = (int) Math.min(WINDOW_SIZE - curr, WIN_INIT);
+				zero((int) curr, init);
+				highWater = curr + init;
+			}
+			else if (highWater < curr + WIN_INIT)
+			{
+				int init = (int) Math.min(curr + WIN_INIT - highWater, WINDOW_SIZE - highWater);
+				zero((int) highWater, init);
+				highWater += init;
+			}
+		}
+	}
+
+	private void zero(int offset, int length)
+	{
+		for (int i = offset; i < offset + length; i++)
+		{
+			window[i] = 0;
+		}
+	}
+
+	private void flushBlock(boolean last) throws IOException
+	{
+		trFlushBlock(blockStart >= 0 ? blockStart : -1, strStart - blockStart, last);
+		blockStart = strStart;
+		flushPending();
+	}
+
+	private void deflateFast(boolean finish) throws IOException
+	{
+		for (;;)
+		{
+			// make sure that we always have enough lookahead
+			if (lookahead < MIN_LOOKAHEAD)
+			{
+				fillWindow();
+				if (lookahead < MIN_LOOKAHEAD && !finish)
+				{
+					return;
+				}
+				if (lookahead == 0)
+				{
+					break;
+				}
+			}
+
+			int hashHead = NIL;
+			if (lookahead >= MIN_MATCH)
+			{
+				hashHead = insertString(strStart);
+			}
+
+			if (hashHead != NIL && strStart - hashHead <= MAX_DIST)
+			{
+				matchLength = longestMatch(hashHead);
+			}
+
+			boolean bflush;
+			if (matchLength >= MIN_MATCH)
+			{
+				bflush = trTally(strStart - matchStart, matchLength - MIN_MATCH);
+				lookahead -= matchLength;
+
+				// insert new strings in the hash table only if the match length is not too large
+				if (matchLength <= maxLazyMatch && lookahead >= MIN_MATCH)
+				{
+					matchLength--;
+					do
+					{
+						strStart++;
+						insertString(strStart);
+					}
+					while (--matchLength != 0);
+					strStart++;
+				}
+				else
+				{
+					strStart += matchLength;
+					matchLength = 0;
+					insH = window[strStart] & 0xff;
+					insH = updateHash(insH, window[strStart + 1] & 0xff);
+				}
+			}
+			else
+			{
+				bflush = trTally(0, window[strStart] & 0xff);
+				lookahead--;
+				strStart++;
+			}
+			if (bflush)
+			{
+				flushBlock(false);
+			}
+		}
+		insert = strStart < MIN_MATCH - 1 ? strStart : MIN_MATCH - 1;
+		flushBlock(true);
+	}
+
+	private void deflateSlow(boolean finish) throws IOException
+	{
+		for (;;)
+		{
+			if (lookahead < MIN_LOOKAHEAD)
+			{
+				fillWindow();
+				if (lookahead < MIN_LOOKAHEAD && !finish)
+				{
+					return;
+				}
+				if (lookahead == 0)
+				{
+					break;
+				}
+			}
+
+			int hashHead = NIL;
+			if (lookahead >= MIN_MATCH)
+			{
+				hashHead = insertString(strStart);
+			}
+
+			// find the longest match, discarding those <= prev_length
+			prevLength = matchLength;
+			prevMatch = matchStart;
+			matchLength = MIN_MATCH - 1;
+
+			if (hashHead != NIL && prevLength < maxLazyMatch && strStart - hashHead <= MAX_DIST)
+			{
+				matchLength = longestMatch(hashHead);
+
+				if (matchLength <= 5 && (strategy == FILTERED
+					|| (matchLength == MIN_MATCH && strStart - matchStart > TOO_FAR)))
+				{
+					// forget a short match which is probably worse than its literals
+					matchLength = MIN_MATCH - 1;
+				}
+			}
+
+			// if there was a match at the previous step and the current match is not better, output the previous match
+			if (prevLength >= MIN_MATCH && matchLength <= prevLength)
+			{
+				int maxInsert = strStart + lookahead - MIN_MATCH;
+				boolean bflush = trTally(strStart - 1 - prevMatch, prevLength - MIN_MATCH);
+
+				lookahead -= prevLength - 1;
+				prevLength -= 2;
+				do
+				{
+					if (++strStart <= maxInsert)
+					{
+						insertString(strStart);
+					}
+				}
+				while (--prevLength != 0);
+				matchAvailable = false;
+				matchLength = MIN_MATCH - 1;
+				strStart++;
+
+				if (bflush)
+				{
+					flushBlock(false);
+				}
+			}
+			else if (matchAvailable)
+			{
+				// no better match, output the previous literal
+				if (trTally(0, window[strStart - 1] & 0xff))
+				{
+					flushBlock(false);
+				}
+				strStart++;
+				lookahead--;
+			}
+			else
+			{
+				// wait for the next step to decide
+				matchAvailable = true;
+				strStart++;
+				lookahead--;
+			}
+		}
+
+		if (matchAvailable)
+		{
+			trTally(0, window[strStart - 1] & 0xff);
+			matchAvailable = false;
+		}
+		insert = strStart < MIN_MATCH - 1 ? strStart : MIN_MATCH - 1;
+		flushBlock(true);
+	}
+
+	private void deflateHuff(boolean finish) throws IOException
+	{
+		for (;;)
+		{
+			if (lookahead == 0)
+			{
+				fillWindow();
+				if (lookahead == 0)
+				{
+					if (!finish)
+					{
+						return;
+					}
+					break;
+				}
+			}
+
+			matchLength = 0;
+			boolean bflush = trTally(0, window[strStart] & 0xff);
+			lookahead--;
+			strStart++;
+			if (bflush)
+			{
+				flushBlock(false);
+			}
+		}
+		insert = 0;
+		flushBlock(true);
+	}
+
+	// trees.c
+
+	private void initBlock()
+	{
+		for (int n = 0; n < L_CODES; n++)
+		{
+			dynLtree.freq[n] = 0;
+		}
+		for (int n = 0; n < D_CODES; n++)
+		{
+			dynDtree.freq[n] = 0;
+		}
+		for (int n = 0; n < BL_CODES; n++)
+		{
+			blTree.freq[n] = 0;
+		}
+
+		dynLtree.freq[END_BLOCK] = 1;
+		optLen = staticLen = 0;
+		lastLit = 0;
+	}
+
+	private boolean smaller(int[] freq, int n, int m)
+	{
+		return freq[n] < freq[m] || (freq[n] == freq[m] && depth[n] <= depth[m]);
+	}
+
+	/**
+	 * Restore the heap property by moving down the tree starting at node k
+	 */
+	private void pqdownheap(int[] freq, int k)
+	{
+		int v = heap[k];
+		int j = k << 1;
+		while (j <= heapLen)
+		{
+			if (j < heapLen && smaller(freq, heap[j + 1], heap[j]))
+			{
+				j++;
+			}
+			if (smaller(freq, v, heap[j]))
+			{
+				break;
+			}
+
+			heap[k] = heap[j];
+			k = j;
+			j <<= 1;
+		}
+		heap[k] = v;
+	}
+
+	private void genBitlen(Tree desc)
+	{
+		int[] freq = desc.freq;
+		int[] len = desc.len;
+		int[] dad = desc.dad;
+		int maxCode = desc.maxCode;
+		int[] stree = desc.stat.staticTreeLen;
+		int[] extra = desc.stat.extraBits;
+		int base = desc.stat.extraBase;
+		int maxLength = desc.stat.maxLength;
+		int overflow = 0;
+
+		for (int bits = 0; bits <= MAX_BITS; bits++)
+		{
+			blCount[bits] = 0;
+		}
+
+		// compute the optimal bit lengths, root of the heap first
+		len[heap[heapMax]] = 0;
+
+		int h;
+		for (h = heapMax + 1; h < HEAP_SIZE; h++)
+		{
+			int n = heap[h];
+			int bits = len[dad[n]] + 1;
+			if (bits > maxLength)
+			{
+				bits = maxLength;
+				overflow++;
+			}
+			len[n] = bits;
+
+			if (n > maxCode)
+			{
+				// not a leaf node
+				continue;
+			}
+
+			blCount[bits]++;
+			int xbits = 0;
+			if (n >= base)
+			{
+				xbits = extra[n - base];
+			}
+			int f = freq[n];
+			optLen += (long) f * (bits + xbits);
+			if (stree != null)
+			{
+				staticLen += (long) f * (stree[n] + xbits);
+			}
+		}
+		if (overflow == 0)
+		{
+			return;
+		}
+
+		// find the first bit length which could increase
+		do
+		{
+			int bits = maxLength - 1;
+			while (blCount[bits] == 0)
+			{
+				bits--;
+			}
+			blCount[bits]--;
+			blCount[bits + 1] += 2;
+			blCount[maxLength]--;
+			overflow -= 2;
+		}
+		while (overflow > 0);
+
+		// recompute all bit lengths, scanning in increasing frequency
+		for (int bits = maxLength; bits != 0; bits--)
+		{
+			int n = blCount[bits];
+			while (n != 0)
+			{
+				int m = heap[--h];
+				if (m > maxCode)
+				{
+					continue;
+				}
+				if (len[m] != bits)
+				{
+					optLen += ((long) bits - len[m]) * freq[m];
+					len[m] = bits;
+				}
+				n--;
+			}
+		}
+	}
+
+	private static void genCodes(int[] code, int[] len, int maxCode, int[] blCount)
+	{
+		int[] nextCode = new int[MAX_BITS + 1];
+		int c = 0;
+		for (int bits = 1; bits <= MAX_BITS; bits++)
+		{
+			c = (c + blCount[bits - 1]) << 1;
+			nextCode[bits] = c;
+		}
+
+		for (int n = 0; n <= maxCode; n++)
+		{
+			int l = len[n];
+			if (l == 0)
+			{
+				continue;
+			}
+			code[n] = biReverse(nextCode[l]++, l);
+		}
+	}
+
+	private void buildTree(Tree desc)
+	{
+		int[] freq = desc.freq;
+		int[] len = desc.len;
+		int[] stree = desc.stat.staticTreeLen;
+		int elems = desc.stat.elems;
+		int maxCode = -1;
+
+		heapLen = 0;
+		heapMax = HEAP_SIZE;
+
+		for (int n = 0; n < elems; n++)
+		{
+			if (freq[n] != 0)
+			{
+				heap[++heapLen] = maxCode = n;
+				depth[n] = 0;
+			}
+			else
+			{
+				len[n] = 0;
+			}
+		}
+
+		// force at least two codes of non zero frequency
+		while (heapLen < 2)
+		{
+			int node = heap[++heapLen] = (maxCode < 2 ? ++maxCode : 0);
+			freq[node] = 1;
+			depth[node] = 0;
+			optLen--;
+			if (stree != null)
+			{
+				staticLen -= stree[node];
+			}
+		}
+		desc.maxCode = maxCode;
+
+		for (int n = heapLen / 2; n >= 1; n--)
+		{
+			pqdownheap(freq, n);
+		}
+
+		// construct the tree by repeatedly combining the two least frequent nodes
+		int node = elems;
+		do
+		{
+			int n = heap[SMALLEST];
+			heap[SMALLEST] = heap[heapLen--];
+			pqdownheap(freq, SMALLEST);
+			int m = heap[SMALLEST];
+
+			heap[--heapMax] = n;
+			heap[--heapMax] = m;
+
+			freq[node] = freq[n] + freq[m];
+			depth[node] = Math.max(depth[n], depth[m]) + 1;
+			desc.dad[n] = desc.dad[m] = node;
+
+			heap[SMALLEST] = node++;
+			pqdownheap(freq, SMALLEST);
+		}
+		while (heapLen >= 2);
+
+		heap[--heapMax] = heap[SMALLEST];
+
+		genBitlen(desc);
+		genCodes(desc.code, len, maxCode, blCount);
+	}
+
+	private void scanTree(Tree tree, int maxCode)
+	{
+		int[] len = tree.len;
+		int prevlen = -1;
+		int nextlen = len[0];
+		int count = 0;
+		int maxCount = 7;
+		int minCount = 4;
+
+		if (nextlen == 0)
+		{
+			maxCount = 138;
+			minCount = 3;
+		}
+		// guard
+		len[maxCode + 1] = 0xffff;
+
+		for (int n = 0; n <= maxCode; n++)
+		{
+			int curlen = nextlen;
+			nextlen = len[n + 1];
+			if (++count < maxCount && curlen == nextlen)
+			{
+				continue;
+			}
+			else if (count < minCount)
+			{
+				blTree.freq[curlen] += count;
+			}
+			else if (curlen != 0)
+			{
+				if (curlen != prevlen)
+				{
+					blTree.freq[curlen]++;
+				}
+				blTree.freq[REP_3_6]++;
+			}
+			else if (count <= 10)
+			{
+				blTree.freq[REPZ_3_10]++;
+			}
+			else
+			{
+				blTree.freq[REPZ_11_138]++;
+			}
+
+			count = 0;
+			prevlen = curlen;
+			if (nextlen == 0)
+			{
+				maxCount = 138;
+				minCount = 3;
+			}
+			else if (curlen == nextlen)
+			{
+				maxCount = 6;
+				minCount = 3;
+			}
+			else
+			{
+				maxCount = 7;
+				minCount = 4;
+			}
+		}
+	}
+
+	private void sendTree(Tree tree, int maxCode)
+	{
+		int[] len = tree.len;
+		int prevlen = -1;
+		int nextlen = len[0];
+		int count = 0;
+		int maxCount = 7;
+		int minCount = 4;
+
+		if (nextlen == 0)
+		{
+			maxCount = 138;
+			minCount = 3;
+		}
+
+		for (int n = 0; n <= maxCode; n++)
+		{
+			int curlen = nextlen;
+			nextlen = len[n + 1];
+			if (++count < maxCount && curlen == nextlen)
+			{
+				continue;
+			}
+			else if (count < minCount)
+			{
+				do
+				{
+					sendCode(curlen, blTree);
+				}
+				while (--count != 0);
+			}
+			else if (curlen != 0)
+			{
+				if (curlen != prevlen)
+				{
+					sendCode(curlen, blTree);
+					count--;
+				}
+				sendCode(REP_3_6, blTree);
+				sendBits(count - 3, 2);
+			}
+			else if (count <= 10)
+			{
+				sendCode(REPZ_3_10, blTree);
+				sendBits(count - 3, 3);
+			}
+			else
+			{
+				sendCode(REPZ_11_138, blTree);
+				sendBits(count - 11, 7);
+			}
+
+			count = 0;
+			prevlen = curlen;
+			if (nextlen == 0)
+			{
+				maxCount = 138;
+				minCount = 3;
+			}
+			else if (curlen == nextlen)
+			{
+				maxCount = 6;
+				minCount = 3;
+			}
+			else
+			{
+				maxCount = 7;
+				minCount = 4;
+			}
+		}
+	}
+
+	/**
+	 * Build the bit length tree for the two trees and compute the index of the last bit length code to send
+	 */
+	private int buildBlTree()
+	{
+		scanTree(dynLtree, dynLtree.maxCode);
+		scanTree(dynDtree, dynDtree.maxCode);
+
+		buildTree(blTree);
+
+		int maxBlindex;
+		for (maxBlindex = BL_CODES - 1; maxBlindex >= 3; maxBlindex--)
+		{
+			if (blTree.len[BL_ORDER[maxBlindex]] != 0)
+			{
+				break;
+			}
+		}
+		optLen += 3 * ((long) maxBlindex + 1) + 5 + 5 + 4;
+		return maxBlindex;
+	}
+
+	private void sendAllTrees(int lcodes, int dcodes, int blcodes)
+	{
+		sendBits(lcodes - 257, 5);
+		sendBits(dcodes - 1, 5);
+		sendBits(blcodes - 4, 4);
+		for (int rank = 0; rank < blcodes; rank++)
+		{
+			sendBits(blTree.len[BL_ORDER[rank]], 3);
+		}
+		sendTree(dynLtree, lcodes - 1);
+		sendTree(dynDtree, dcodes - 1);
+	}
+
+	private void trStoredBlock(int buf, int storedLen, boolean last)
+	{
+		sendBits((STORED_BLOCK << 1) + (last ? 1 : 0), 3);
+		biWindup();
+		putByte(storedLen);
+		putByte(storedLen >>> 8);
+		putByte(~storedLen);
+		putByte(~storedLen >>> 8);
+		for (int i = 0; i < storedLen; i++)
+		{
+			putByte(window[buf + i]);
+		}
+	}
+
+	/**
+	 * Determine the best encoding for the current block and write it out
+	 *
+	 * @param buf       offset of the block in the window, or -1 if it is no longer in the window
+	 * @param storedLen length of the block
+	 */
+	private void trFlushBlock(int buf, int storedLen, boolean last)
+	{
+		buildTree(dynLtree);
+		buildTree(dynDtree);
+		int maxBlindex = buildBlTree();
+
+		long optLenb = (optLen + 3 + 7) >>> 3;
+		long staticLenb = (staticLen + 3 + 7) >>> 3;
+		if (staticLenb <= optLenb)
+		{
+			optLenb = staticLenb;
+		}
+
+		if (storedLen + 4 <= optLenb && buf != -1)
+		{
+			trStoredBlock(buf, storedLen, last);
+		}
+		else if (staticLenb == optLenb)
+		{
+			sendBits((STATIC_TREES << 1) + (last ? 1 : 0), 3);
+			compressBlock(STATIC_LTREE_CODE, STATIC_LTREE_LEN, STATIC_DTREE_CODE, STATIC_DTREE_LEN);
+		}
+		else
+		{
+			sendBits((DYN_TREES << 1) + (last ? 1 : 0), 3);
+			sendAllTrees(dynLtree.maxCode + 1, dynDtree.maxCode + 1, maxBlindex + 1);
+			compressBlock(dynLtree.code, dynLtree.len, dynDtree.code, dynDtree.len);
+		}
+		initBlock();
+
+		if (last)
+		{
+			biWindup();
+		}
+	}
+
+	/**
+	 * Save a match or literal
+	 *
+	 * @param dist distance of the match, or 0 for a literal
+	 * @param lc   match length - MIN_MATCH, or the literal
+	 * @return true if the current block must be flushed
+	 */
+	private boolean trTally(int dist, int lc)
+	{
+		dBuf[lastLit] = dist;
+		lBuf[lastLit++] = lc;
+		if (dist == 0)
+		{
+			dynLtree.freq[lc]++;
+		}
+		else
+		{
+			dist--;
+			dynLtree.freq[LENGTH_CODE[lc] + LITERALS + 1]++;
+			dynDtree.freq[dCode(dist)]++;
+		}
+		return lastLit == LIT_BUFSIZE - 1;
+	}
+
+	private void compressBlock(int[] lcode, int[] llen, int[] dcode, int[] dlen)
+	{
+		for (int lx = 0; lx < lastLit; lx++)
+		{
+			int dist = dBuf[lx];
+			int lc = lBuf[lx];
+			if (dist == 0)
+			{
+				sendBits(lcode[lc], llen[lc]);
+			}
+			else
+			{
+				int code = LENGTH_CODE[lc];
+				sendBits(lcode[code + LITERALS + 1], llen[code + LITERALS + 1]);
+				int extra = EXTRA_LBITS[code];
+				if (extra != 0)
+				{
+					sendBits(lc - BASE_LENGTH[code], extra);
+				}
+
+				dist--;
+				code = dCode(dist);
+				sendBits(dcode[code], dlen[code]);
+				extra = EXTRA_DBITS[code];
+				if (extra != 0)
+				{
+					sendBits(dist - BASE_DIST[code], extra);
+				}
+			}
+		}
+		sendBits(lcode[END_BLOCK], llen[END_BLOCK]);
+	}
+
+	private static int dCode(int dist)
+	{
+		return dist < 256 ? DIST_CODE[dist] : DIST_CODE[256 + (dist >>> 7)];
+	}
+
+	private static int biReverse(int code, int len)
+	{
+		int res = 0;
+		do
+		{
+			res |= code & 1;
+			code >>>= 1;
+			res <<= 1;
+		}
+		while (--len > 0);
+		return res >>> 1;
+	}
+
+	private void sendCode(int c, Tree tree)
+	{
+		sendBits(tree.code[c], tree.len[c]);
+	}
+
+	private void sendBits(int value, int length)
+	{
+		biBuf |= value << biValid;
+		biValid += length;
+		while (biValid >= 8)
+		{
+			putByte(biBuf);
+			biBuf >>>= 8;
+			biValid -= 8;
+		}
+	}
+
+	/**
+	 * Write out any remaining bits, padding to a byte boundary
+	 */
+	private void biWindup()
+	{
+		if (biValid > 0)
+		{
+			putByte(biBuf);
+		}
+		biBuf = 0;
+		biValid = 0;
+	}
+
+	private void putShortMSB(int b)
+	{
+		putByte(b >>> 8);
+		putByte(b);
+	}
+
+	private void putByte(int b)
+	{
+		if (pendingLength == pending.length)
+		{
+			pending = Arrays.copyOf(pending, pending.length * 2);
+		}
+		pending[pendingLength++] = (byte) b;
+	}
+
+	private void flushPending() throws IOException
+	{
+		out.write(pending, 0, pendingLength);
+		pendingLength = 0;
+	}
+
+	private static class StaticTreeDesc
+	{
+		// the bit lengths of the static tree, or null for the bit length tree
+		final int[] staticTreeLen;
+		final int[] extraBits;
+		final int extraBase;
+		final int elems;
+		final int maxLength;
+
+		StaticTreeDesc(int[] staticTreeLen, int[] extraBits, int extraBase, int elems, int maxLength)
+		{
+			this.staticTreeLen = staticTreeLen;
+			this.extraBits = extraBits;
+			this.extraBase = extraBase;
+			this.elems = elems;
+			this.maxLength = maxLength;
+		}
+	}
+
+	/**
+	 * A dynamic tree. zlib overlays freq with code and dad with len, which are kept apart here.
+	 */
+	private static class Tree
+	{
+		final int[] freq;
+		final int[] code;
+		final int[] dad;
+		final int[] len;
+		final StaticTreeDesc stat;
+		int maxCode;
+
+		Tree(int size, StaticTreeDesc stat)
+		{
+			freq = new int[size];
+			code = new int[size];
+			dad = new int[size];
+			len = new int[size];
+			this.stat = stat;
+		}
+	}
+}
@@ -32,7 +32,9 @@ public class Artifact
 	private String name;
 	private String path;
 	private String hash;
-	private int size;
+	private long size;
 	private Diff[] diffs;
+	// url of the content defined chunks of the artifact, a json array of chunks in order
+	private String chunks;
 	private Platform[] platform;
 }
\ No newline at end of file
@@ -24,6 +24,7 @@
  */
 package net.runelite.launcher.beans;
 
+import java.util.List;
 import java.util.Map;
 import lombok.Data;
 
@@ -47,6 +48,8 @@ public class Bootstrap
 	private String[] launcherJvm17Arguments;
 
 	private String requiredLauncherVersion;
+	// clients older than this bootstrap must not be started, even by a quick launch
+	private boolean requiredUpdate;
 	private String requiredJVMVersion;
 
 	private Map<String, String> launcherWindowsEnv;
@@ -54,4 +57,7 @@ public class Bootstrap
 	private Map<String, String> launcherLinuxEnv;
 
 	private Update[] updates;
+
+	// origins, such as https://host, to mirrors serving the same paths
+	private Map<String, List<String>> mirrors;
 }
@@ -24,6 +24,8 @@
  */
 package net.runelite.launcher.beans;
 
+import java.util.List;
+import java.util.Map;
 import lombok.Data;
 
 @Data
@@ -34,4 +36,6 @@ public class ClientType
 	private String bootstrap;
 	private String bootstrapsig;
 	private String tooltip;
+	// origins, such as https://host, to mirrors serving the same paths
+	private Map<String, List<String>> mirrors;
 }
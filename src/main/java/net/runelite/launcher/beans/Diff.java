@@ -34,5 +34,5 @@ public class Diff
 	private String fromHash;
 	private String hash;
 	private String path;
-	private int size;
+	private long size;
 }
@@ -38,6 +38,6 @@ public class Update
 	private String minimumVersion; // minimum launcher version to update
 	private String url;
 	private String hash;
-	private int size;
+	private long size;
 	private double rollout;
 }
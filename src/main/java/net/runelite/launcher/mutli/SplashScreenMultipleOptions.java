@@ -8,6 +8,7 @@ import java.awt.Font;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
+import java.util.Objects;
 import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -19,6 +20,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.launcher.ColorScheme;
 import net.runelite.launcher.LauncherProperties;
+import net.runelite.launcher.ProgressModel;
 import net.runelite.launcher.SplashScreen;
 
 @Slf4j
@@ -30,6 +32,9 @@ public class SplashScreenMultipleOptions extends JFrame
 	@Getter
 	private MessagePanel messagePanel;
 
+	private String lastMessage;
+	private int lastValue = -1;
+
 	private SplashScreenMultipleOptions(List<JButton> buttons)
 	{
 		this.setTitle(LauncherProperties.getApplicationName());
@@ -60,6 +65,8 @@ public class SplashScreenMultipleOptions extends JFrame
 
 		this.setLocationRelativeTo(null);
 		this.setVisible(true);
+
+		ProgressModel.get().show(this::update);
 	}
 
 
@@ -72,6 +79,34 @@ public class SplashScreenMultipleOptions extends JFrame
 		bar.repaint();
 	}
 
+	private void update(ProgressModel.Snapshot snapshot)
+	{
+		String msg = snapshot.subAction;
+		if (snapshot.transfer)
+		{
+			String progress;
+			if (snapshot.mib)
+			{
+				final double Mb = 1000 * 1000;
+				progress = String.format("%.1f / %.1f MB", snapshot.done / Mb, snapshot.total / Mb);
+			}
+			else
+			{
+				progress = snapshot.done + " / " + snapshot.total;
+			}
+			msg = snapshot.eta < 0 ? msg + " " + progress : msg + " " + progress + " - " + snapshot.formatEta();
+		}
+
+		int value = (int) (snapshot.progress * 1000);
+		// the layout is only redone when something changed
+		if (!Objects.equals(msg, lastMessage) || value != lastValue)
+		{
+			lastMessage = msg;
+			lastValue = value;
+			setMessage(msg, snapshot.progress);
+		}
+	}
+
 	private void setMessage(final String msg, final double value)
 	{
 		messagePanel.getBarLabel().setText(msg);
@@ -124,6 +159,7 @@ public class SplashScreenMultipleOptions extends JFrame
 			// from its list, causing events to get dispatched to disposed frames. The frames handle the events
 			// regardless of being disposed and will run the configured close operation. Set the close operation
 			// to DO_NOTHING_ON_CLOSE prior to disposing to prevent this.
+			ProgressModel.get().hide();
 			INSTANCE.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
 			INSTANCE.setVisible(false);
 			INSTANCE.dispose();
@@ -133,47 +169,33 @@ public class SplashScreenMultipleOptions extends JFrame
 
 	public static void stage(double startProgress, double endProgress, String progressText, int done, int total)
 	{
-		String progress = done + " / " + total;
-		stage(startProgress + ((endProgress - startProgress) * done / total), progressText + " " + progress);
+		ProgressModel.get().transfer(startProgress, endProgress, null, progressText, done, total, false);
 	}
 
-	public static void stage(double startProgress, double endProgress, String progressText, int done, int total, boolean mib)
+	public static void stage(double startProgress, double endProgress, String progressText, long done, long total, boolean mib)
 	{
-		String progress;
-		if (mib)
-		{
-			final double Mb = 1000 * 1000;
-			progress = String.format("%.1f / %.1f MB", done / Mb, total / Mb);
-		}
-		else
-		{
-			progress = done + " / " + total;
-		}
-		stage(startProgress + ((endProgress - startProgress) * done / total), progressText + " " + progress);
+		ProgressModel.get().transfer(startProgress, endProgress, null, progressText, done, total, mib);
 	}
 
 	public static void stage(double overallProgress, String progressText)
 	{
-		if (INSTANCE != null)
-		{
-			INSTANCE.setMessage(progressText, overallProgress);
-		}
+		ProgressModel.get().stage(overallProgress, null, progressText, null);
 	}
 
 	public static void barMessage(String barMessage)
 	{
-		if (INSTANCE != null)
-		{
-			INSTANCE.setMessage(barMessage, 0);
-		}
+		ProgressModel.get().stage(0, null, barMessage, null);
 	}
 
 	public static void message(String message)
 	{
-		if (INSTANCE != null)
+		SwingUtilities.invokeLater(() ->
 		{
-			INSTANCE.messagePanel.setMessageContent(message);
-		}
+			if (INSTANCE != null)
+			{
+				INSTANCE.messagePanel.setMessageContent(message);
+			}
+		});
 	}
 
 
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import net.runelite.launcher.beans.Chunk;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ChunkerTest
+{
+	@Test
+	public void testGear()
+	{
+		// the first outputs of splitmix64 seeded with 0
+		Assert.assertEquals(0xe220a8397b1dcdafL, Chunker.GEAR[0]);
+		Assert.assertEquals(0x6e789e6aa1b965f4L, Chunker.GEAR[1]);
+		Assert.assertEquals(0x06c45d188009454fL, Chunker.GEAR[2]);
+		Assert.assertEquals(0x5a5832bb47bcf19eL, Chunker.GEAR[255]);
+
+		long hash = 0;
+		for (long gear : Chunker.GEAR)
+		{
+			hash = hash * 31 + gear;
+		}
+		Assert.assertEquals(0xf23ddac01a50987fL, hash);
+	}
+
+	@Test
+	public void testCutPoints() throws IOException
+	{
+		byte[] data = new byte[300_000];
+		new Random(1).nextBytes(data);
+
+		List<Chunk> chunks = Chunker.chunk(new ByteArrayInputStream(data));
+		int[] expected = {
+			19892, 17995, 23295, 7454, 21044, 17324, 22742, 20722, 21691,
+			19154, 19827, 17562, 19797, 5953, 8783, 17116, 19649,
+		};
+		Assert.assertEquals(expected.length, chunks.size());
+		for (int i = 0; i < expected.length; ++i)
+		{
+			Assert.assertEquals("chunk " + i, expected[i], chunks.get(i).getSize());
+		}
+		Assert.assertEquals("3290c7cc8d6c8208d4949777bf29e082d99fbbb9f80a4bc28a7b489bc5c7d328", chunks.get(0).getHash());
+	}
+
+	@Test
+	public void testShift() throws IOException
+	{
+		byte[] data = new byte[300_000];
+		new Random(1).nextBytes(data);
+		byte[] shifted = new byte[data.length + 100];
+		System.arraycopy(data, 0, shifted, 100, data.length);
+
+		// data inserted at the front only changes the first chunk
+		List<Chunk> chunks = Chunker.chunk(new ByteArrayInputStream(data));
+		List<Chunk> shiftedChunks = Chunker.chunk(new ByteArrayInputStream(shifted));
+		Assert.assertEquals(chunks.size(), shiftedChunks.size());
+		for (int i = 1; i < chunks.size(); ++i)
+		{
+			Assert.assertEquals(chunks.get(i).getHash(), shiftedChunks.get(i).getHash());
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.util.Arrays;
+import java.util.Collections;
+import net.runelite.launcher.beans.Artifact;
+import net.runelite.launcher.beans.Diff;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DiffCostModelTest
+{
+	private static final int MB = 1024 * 1024;
+
+	@Test
+	public void testChooseSmallestDiff()
+	{
+		DiffCostModel model = new DiffCostModel(MB, 100 * MB);
+		Artifact artifact = artifact(50 * MB);
+		Diff small = diff(2 * MB);
+		Diff large = diff(10 * MB);
+
+		Assert.assertSame(small, model.choose(artifact, Arrays.asList(large, small)));
+	}
+
+	@Test
+	public void testChooseFullDownload()
+	{
+		// a fast connection and a slow cpu
+		DiffCostModel model = new DiffCostModel(100 * MB, MB);
+		Artifact artifact = artifact(50 * MB);
+
+		Assert.assertNull(model.choose(artifact, Collections.singletonList(diff(MB))));
+	}
+
+	@Test
+	public void testChooseWithoutDiffs()
+	{
+		DiffCostModel model = new DiffCostModel(MB, 100 * MB);
+
+		Assert.assertNull(model.choose(artifact(MB), Collections.emptyList()));
+	}
+
+	@Test
+	public void testRecordDownload()
+	{
+		DiffCostModel model = new DiffCostModel(100 * MB, 10 * MB);
+		Artifact artifact = artifact(50 * MB);
+		Diff diff = diff(5 * MB);
+		Assert.assertNull(model.choose(artifact, Collections.singletonList(diff)));
+
+		// the connection turned out to be much slower
+		for (int i = 0; i < 10; ++i)
+		{
+			model.recordDownload(MB, 1_000_000_000L);
+		}
+		Assert.assertSame(diff, model.choose(artifact, Collections.singletonList(diff)));
+	}
+
+	private static Artifact artifact(long size)
+	{
+		Artifact artifact = new Artifact();
+		artifact.setName("client.jar");
+		artifact.setSize(size);
+		return artifact;
+	}
+
+	private static Diff diff(long size)
+	{
+		Diff diff = new Diff();
+		diff.setSize(size);
+		return diff;
+	}
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.archivepatcher.applier.FileByFileV1DeltaApplier;
+import com.google.archivepatcher.shared.DefaultDeflateCompatibilityWindow;
+import com.google.archivepatcher.shared.JreDeflateParameters;
+import com.google.archivepatcher.shared.TypedRange;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelDeltaApplierTest
+{
+	private ExecutorService executor;
+	private File dir;
+	private File oldBlob;
+	private byte[] patch;
+	private byte[] expected;
+
+	@Before
+	public void before() throws IOException
+	{
+		executor = Executors.newFixedThreadPool(4);
+		dir = Files.createTempDirectory("patch").toFile();
+		// the patch builds the new archive from nothing, so the old one is empty
+		oldBlob = new File(dir, "old");
+		Files.write(oldBlob.toPath(), new byte[0]);
+
+		// the uncompressed form of an archive: bytes outside the ranges are headers and stored entries, and the
+		// ranges are compressed again by the applier
+		Random random = new Random(1);
+		ByteArrayOutputStream newFile = new ByteArrayOutputStream();
+		List<TypedRange<JreDeflateParameters>> ranges = new ArrayList<>();
+		newFile.write(random(random, 30));
+		newFile.write(text(random, 5_000));
+		for (int i = 0; i < 20; ++i)
+		{
+			newFile.write(random(random, 46));
+			byte[] entry = text(random, 1_000 + random.nextInt(60_000));
+			JreDeflateParameters parameters = JreDeflateParameters.of(1 + random.nextInt(9), random.nextInt(3), true);
+			ranges.add(new TypedRange<>(newFile.size(), entry.length, parameters));
+			newFile.write(entry);
+		}
+		newFile.write(random(random, 46));
+		// recompressed as it is written rather than on the pool
+		byte[] large = text(random, 9 * 1024 * 1024);
+		ranges.add(new TypedRange<>(newFile.size(), large.length, JreDeflateParameters.of(6, Deflater.DEFAULT_STRATEGY, true)));
+		newFile.write(large);
+		newFile.write(random(random, 2_000));
+
+		patch = patch(newFile.toByteArray(), ranges);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new FileByFileV1DeltaApplier(dir).applyDelta(oldBlob, new ByteArrayInputStream(patch), out);
+		expected = out.toByteArray();
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		executor.shutdownNow();
+		File[] files = dir.listFiles();
+		if (files != null)
+		{
+			for (File file : files)
+			{
+				Files.delete(file.toPath());
+			}
+		}
+		Files.delete(dir.toPath());
+	}
+
+	@Test
+	public void testSystemZlib() throws IOException
+	{
+		Assume.assumeTrue(new DefaultDeflateCompatibilityWindow().isCompatible());
+		Assert.assertArrayEquals(expected, apply(true));
+	}
+
+	@Test
+	public void testBundledZlib() throws IOException
+	{
+		// the reference applier compresses with the JRE's zlib
+		Assume.assumeTrue(new DefaultDeflateCompatibilityWindow().isCompatible());
+		Assert.assertArrayEquals(expected, apply(false));
+	}
+
+	private byte[] apply(boolean systemZlib) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new ParallelDeltaApplier(executor, systemZlib).applyDelta(oldBlob, new File(dir, "tmp"), new ByteArrayInputStream(patch), out);
+		return out.toByteArray();
+	}
+
+	private static byte[] random(Random random, int length)
+	{
+		byte[] data = new byte[length];
+		random.nextBytes(data);
+		return data;
+	}
+
+	private static byte[] text(Random random, int length)
+	{
+		String[] words = {"net/runelite/", "java/lang/Object", "launcher", "client", "()V", "<init>", "Code", "LineNumberTable"};
+		StringBuilder sb = new StringBuilder(length + 32);
+		while (sb.length() < length)
+		{
+			sb.append(words[random.nextInt(words.length)]);
+			sb.append(random.nextInt(8) == 0 ? '\n' : ' ');
+			if (random.nextInt(50) == 0)
+			{
+				sb.append(random.nextInt());
+			}
+		}
+		sb.setLength(length);
+		return sb.toString().getBytes(StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Write a v1 file by file patch from an empty archive
+	 */
+	private static byte[] patch(byte[] newFile, List<TypedRange<JreDeflateParameters>> ranges) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.write("GFbFv1_0".getBytes(StandardCharsets.US_ASCII));
+		// flags
+		out.writeInt(0);
+		// the delta-friendly old file is empty, with no entries to uncompress
+		out.writeLong(0);
+		out.writeInt(0);
+
+		out.writeInt(ranges.size());
+		for (TypedRange<JreDeflateParameters> range : ranges)
+		{
+			JreDeflateParameters parameters = range.getMetadata();
+			out.writeLong(range.getOffset());
+			out.writeLong(range.getLength());
+			// the default deflate compatibility window
+			out.writeByte(0);
+			out.writeByte(parameters.level);
+			out.writeByte(parameters.strategy);
+			out.writeByte(parameters.nowrap ? 1 : 0);
+		}
+
+		byte[] delta = bsdiff(newFile);
+		out.writeInt(1);
+		// bsdiff, from all of the old file to all of the new file
+		out.writeByte(0);
+		out.writeLong(0);
+		out.writeLong(0);
+		out.writeLong(0);
+		out.writeLong(newFile.length);
+		out.writeLong(delta.length);
+		out.write(delta);
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Write a bsdiff patch from an empty file, with all of the new file as extra bytes
+	 */
+	private static byte[] bsdiff(byte[] newFile)
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream(newFile.length + 64);
+		byte[] signature = "ENDSLEY/BSDIFF43".getBytes(StandardCharsets.US_ASCII);
+		out.write(signature, 0, signature.length);
+		writeBsdiffLong(out, newFile.length);
+		// one control entry: nothing from the old file, then all of the new file
+		writeBsdiffLong(out, 0);
+		writeBsdiffLong(out, newFile.length);
+		writeBsdiffLong(out, 0);
+		out.write(newFile, 0, newFile.length);
+		return out.toByteArray();
+	}
+
+	// bsdiff stores longs little endian in sign and magnitude, only positive ones are needed here
+	private static void writeBsdiffLong(ByteArrayOutputStream out, long value)
+	{
+		for (int i = 0; i < 8; ++i)
+		{
+			out.write((int) (value >>> (i * 8)) & 0xff);
+		}
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.archivepatcher.shared.DefaultDeflateCompatibilityWindow;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ZlibOutputStreamTest
+{
+	@Before
+	public void before()
+	{
+		// the JRE's zlib is the reference
+		Assume.assumeTrue(new DefaultDeflateCompatibilityWindow().isCompatible());
+	}
+
+	@Test
+	public void testEmpty() throws IOException
+	{
+		compare(new byte[0]);
+	}
+
+	@Test
+	public void testRandom() throws IOException
+	{
+		byte[] data = new byte[100_000];
+		new Random(1).nextBytes(data);
+		compare(data);
+	}
+
+	@Test
+	public void testText() throws IOException
+	{
+		Random random = new Random(2);
+		String[] words = {"net/runelite/", "java/lang/Object", "launcher", "client", "()V", "<init>", "Code", "LineNumberTable"};
+		StringBuilder sb = new StringBuilder();
+		while (sb.length() < 300_000)
+		{
+			sb.append(words[random.nextInt(words.length)]);
+			sb.append(random.nextInt(8) == 0 ? '\n' : ' ');
+			if (random.nextInt(50) == 0)
+			{
+				sb.append(random.nextInt());
+			}
+		}
+		compare(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testRuns() throws IOException
+	{
+		// long runs and repeats more than a window apart
+		Random random = new Random(3);
+		byte[] data = new byte[200_000];
+		for (int i = 0; i < data.length; i++)
+		{
+			data[i] = i % 40_000 < 1000 ? (byte) random.nextInt(256) : (byte) (i / 1000);
+		}
+		compare(data);
+	}
+
+	private static void compare(byte[] data) throws IOException
+	{
+		for (int level = 1; level <= 9; level++)
+		{
+			for (int strategy = ZlibOutputStream.DEFAULT_STRATEGY; strategy <= ZlibOutputStream.HUFFMAN_ONLY; strategy++)
+			{
+				for (boolean nowrap : new boolean[]{true, false})
+				{
+					byte[] expected = deflate(data, level, strategy, nowrap);
+					String params = "level " + level + " strategy " + strategy + " nowrap " + nowrap;
+					Assert.assertArrayEquals(params, expected, zlib(data, level, strategy, nowrap, data.length));
+					Assert.assertArrayEquals(params + " in pieces", expected, zlib(data, level, strategy, nowrap, 4099));
+				}
+			}
+		}
+	}
+
+	private static byte[] deflate(byte[] data, int level, int strategy, boolean nowrap) throws IOException
+	{
+		Deflater deflater = new Deflater(level, nowrap);
+		deflater.setStrategy(strategy);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (DeflaterOutputStream dout = new DeflaterOutputStream(out, deflater))
+		{
+			dout.write(data);
+		}
+		finally
+		{
+			deflater.end();
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] zlib(byte[] data, int level, int strategy, boolean nowrap, int piece) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ZlibOutputStream zout = new ZlibOutputStream(out, level, strategy, nowrap))
+		{
+			for (int i = 0; i < data.length; i += piece)
+			{
+				zout.write(data, i, Math.min(piece, data.length - i));
+			}
+		}
+		return out.toByteArray();
+	}
+}